@@ -0,0 +1,27 @@
+package com.bookexchange.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH's own launcher, defaulting to machine-readable JSON results so runs from
+ * different builds can be compared with {@link CompareResults}. Any -rf/-rff
+ * given on the command line wins.
+ */
+public final class BenchmarkMain {
+    static final String DEFAULT_RESULTS = "jmh-results.json";
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(List.of("-rf", "json"));
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.addAll(List.of("-rff", DEFAULT_RESULTS));
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
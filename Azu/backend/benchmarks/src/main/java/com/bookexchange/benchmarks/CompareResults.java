@@ -0,0 +1,81 @@
+package com.bookexchange.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints a side-by-side comparison of two JMH JSON result files, matching
+ * benchmarks by name and parameters:
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookexchange.benchmarks.CompareResults baseline.json candidate.json
+ * </pre>
+ * Changes within the combined error margin of the two runs are marked "~".
+ */
+public final class CompareResults {
+    private CompareResults() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareResults <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode after = entry.getValue().get("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey())
+                    ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            String unit = after.get("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", entry.getKey(), "-",
+                        format(after.get("score").asDouble(), unit), "new");
+                continue;
+            }
+            double was = before.get("score").asDouble();
+            double now = after.get("score").asDouble();
+            double noise = error(before) + error(after);
+            String change = Math.abs(now - was) <= noise ? "~" : String.format("%+.1f%%", (now - was) / was * 100);
+            System.out.printf("%-70s %14s %14s %9s%n", entry.getKey(), format(was, unit), format(now, unit), change);
+        }
+        for (String removed : baseline.keySet()) {
+            if (!candidate.containsKey(removed)) {
+                System.out.printf("%-70s %14s %14s %9s%n", removed, "", "-", "removed");
+            }
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replace("com.bookexchange.benchmarks.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(double score, String unit) {
+        return String.format("%.3f %s", score, unit);
+    }
+}
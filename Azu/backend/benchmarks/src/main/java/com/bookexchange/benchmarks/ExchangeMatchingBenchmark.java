@@ -0,0 +1,109 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.matching.ExchangeCycle;
+import com.bookexchange.matching.ExchangeGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange matching on a synthetic catalog: half the books listed for exchange,
+ * ten books per user and five wishes per user. Incremental updates and a cycle
+ * search from one user are compared with rebuilding the whole graph, which is
+ * what re-running the global wishlist/listing join amounts to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ExchangeMatchingBenchmark {
+    private static final int WISHES_PER_USER = 5;
+
+    @Param({"100000", "1000000"})
+    public int books;
+
+    private int users;
+    private long[] owners;
+    private boolean[] exchangeable;
+    private long[][] wishes;
+    private ExchangeGraph graph;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        Random data = new Random(11);
+        users = books / 10;
+        owners = new long[books + 1];
+        exchangeable = new boolean[books + 1];
+        for (int book = 1; book <= books; book++) {
+            owners[book] = 1 + data.nextInt(users);
+            exchangeable[book] = data.nextBoolean();
+        }
+        wishes = new long[users * WISHES_PER_USER][];
+        for (int i = 0; i < wishes.length; i++) {
+            wishes[i] = new long[]{1 + i / WISHES_PER_USER, 1 + data.nextInt(books)};
+        }
+        graph = build();
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public ExchangeGraph addAndRemoveWish() {
+        long user = 1 + random.nextInt(users);
+        long book = 1 + random.nextInt(books);
+        graph.addWish(user, book);
+        graph.removeWish(user, book);
+        return graph;
+    }
+
+    @Benchmark
+    public ExchangeGraph relistBook() {
+        int book = 1 + random.nextInt(books);
+        if (exchangeable[book]) {
+            graph.unlistBook(book);
+            graph.listBook(book, owners[book]);
+        } else {
+            graph.listBook(book, owners[book]);
+            graph.unlistBook(book);
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public List<ExchangeCycle> findCyclesForUser() {
+        return graph.findCycles(1 + random.nextInt(users), 4, 20, 20_000);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ExchangeGraph rebuildFromScratch() {
+        return build();
+    }
+
+    private ExchangeGraph build() {
+        ExchangeGraph built = new ExchangeGraph();
+        for (long[] wish : wishes) {
+            built.addWish(wish[0], wish[1]);
+        }
+        for (int book = 1; book <= books; book++) {
+            if (exchangeable[book]) {
+                built.listBook(book, owners[book]);
+            }
+        }
+        return built;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.dto.FacetCounts;
+import com.bookexchange.entity.Book;
+import com.bookexchange.search.BookFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Facet counts from the bitmap index, unfiltered and with a genre plus price
+ * selection, against grouping the filtered rows one attribute at a time as the
+ * per-facet GROUP BY queries would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacetBenchmark {
+    @Param({"20000", "200000"})
+    public int documents;
+
+    private BookFacetIndex index;
+    private List<Book> books;
+    private MultiValueMap<String, String> none;
+    private MultiValueMap<String, String> genreAndPrice;
+
+    @Setup
+    public void setUp() {
+        books = Fixtures.books(documents, 7);
+        index = new BookFacetIndex(List.of(new BigDecimal("10"), new BigDecimal("25"), new BigDecimal("50")));
+        books.forEach(index::index);
+
+        none = new LinkedMultiValueMap<>();
+        genreAndPrice = new LinkedMultiValueMap<>();
+        genreAndPrice.add("genre", books.get(0).getGenre());
+        genreAndPrice.add("price", "10-25");
+    }
+
+    @Benchmark
+    public FacetCounts bitmapAll() {
+        return index.counts(none);
+    }
+
+    @Benchmark
+    public FacetCounts bitmapFiltered() {
+        return index.counts(genreAndPrice);
+    }
+
+    @Benchmark
+    public List<Map<String, Long>> groupingScanFiltered() {
+        String genre = books.get(0).getGenre();
+        List<Book> matching = books.stream()
+                .filter(book -> book.getGenre().equals(genre) && "10-25".equals(index.priceBucket(book.getPrice())))
+                .toList();
+        return List.of(
+                books.stream().filter(book -> "10-25".equals(index.priceBucket(book.getPrice())))
+                        .collect(Collectors.groupingBy(Book::getGenre, Collectors.counting())),
+                matching.stream().collect(Collectors.groupingBy(book -> book.getCondition().name(), Collectors.counting())),
+                matching.stream().collect(Collectors.groupingBy(Book::getLanguage, Collectors.counting())),
+                books.stream().filter(book -> book.getGenre().equals(genre))
+                        .collect(Collectors.groupingBy(book -> index.priceBucket(book.getPrice()), Collectors.counting())));
+    }
+}
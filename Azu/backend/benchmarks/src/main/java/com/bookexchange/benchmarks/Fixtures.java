@@ -0,0 +1,152 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.ExchangeRequest;
+import com.bookexchange.entity.User;
+import com.bookexchange.security.JwtUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic test data and Spring-free wiring of the beans under test.
+ */
+final class Fixtures {
+    static final String JWT_SECRET = "mySecretKey123456789012345678901234567890";
+    static final int JWT_EXPIRATION_MS = 86_400_000;
+
+    private static final String[] GENRES = {"Fantasy", "Science Fiction", "Mystery", "Romance", "History",
+            "Biography", "Poetry", "Thriller", "Horror", "Self-Help"};
+    private static final String[] WORDS = {"shadow", "river", "empire", "garden", "winter", "silent", "crown",
+            "ocean", "machine", "forest", "letters", "glass", "storm", "harbor", "memory", "stone", "night",
+            "kingdom", "orchard", "signal", "voyage", "ember", "lantern", "thief", "atlas", "meridian"};
+    private static final String[] SURNAMES = {"Tolkien", "Herbert", "Austen", "Christie", "Le Guin", "Asimov",
+            "Atwood", "Murakami", "Morrison", "Pratchett", "Orwell", "Woolf", "Dickens", "Bronte", "Gaiman"};
+
+    private Fixtures() {}
+
+    static JwtUtils jwtUtils() {
+        try {
+            JwtUtils jwtUtils = new JwtUtils();
+            set(jwtUtils, "jwtSecret", JWT_SECRET);
+            set(jwtUtils, "jwtExpirationMs", JWT_EXPIRATION_MS);
+            Method init = JwtUtils.class.getDeclaredMethod("init");
+            init.setAccessible(true);
+            init.invoke(jwtUtils);
+            return jwtUtils;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Configured the way Spring Boot configures the MVC message converter's mapper.
+    static ObjectMapper objectMapper() {
+        return objectMapper(new JsonFactory());
+    }
+
+    static ObjectMapper objectMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    // The encodings the API negotiates, by the names the wire format benchmarks use.
+    static JsonFactory wireFormat(String name) {
+        return switch (name) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown wire format " + name);
+        };
+    }
+
+    static User user(long id) {
+        User user = new User("reader" + id, "reader" + id + "@example.com",
+                "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7nFZ4bqU2fN8Zc8fO2yM8uC");
+        user.setId(id);
+        user.setIsAdmin(id % 50 == 0);
+        user.setJoinedDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id % 365));
+        return user;
+    }
+
+    static List<Book> books(int count, long seed) {
+        Random random = new Random(seed);
+        List<User> sellers = new ArrayList<>();
+        for (int i = 1; i <= Math.max(1, count / 10); i++) {
+            sellers.add(user(i));
+        }
+
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle(words(random, 2 + random.nextInt(4)));
+            book.setAuthor(words(random, 1) + " " + SURNAMES[random.nextInt(SURNAMES.length)]);
+            book.setIsbn(String.format("978-%d-%04d-%04d-%d", random.nextInt(10), random.nextInt(10_000),
+                    random.nextInt(10_000), random.nextInt(10)));
+            book.setGenre(GENRES[random.nextInt(GENRES.length)]);
+            book.setCondition(Book.BookCondition.values()[random.nextInt(Book.BookCondition.values().length)]);
+            book.setPrice(BigDecimal.valueOf(300 + random.nextInt(4_700), 2));
+            book.setDescription(words(random, 20 + random.nextInt(40)));
+            book.setImages(List.of("https://images.example.com/books/" + (i + 1) + "/front.jpg",
+                    "https://images.example.com/books/" + (i + 1) + "/back.jpg"));
+            book.setSeller(sellers.get(random.nextInt(sellers.size())));
+            book.setPublishedYear(1900 + random.nextInt(125));
+            book.setLanguage("English");
+            book.setPageCount(80 + random.nextInt(900));
+            book.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i * 7L));
+            book.setForExchange(random.nextBoolean());
+            books.add(book);
+        }
+        return books;
+    }
+
+    static List<ExchangeRequest> exchangeRequests(List<Book> books, long seed) {
+        Random random = new Random(seed);
+        List<ExchangeRequest> requests = new ArrayList<>(books.size());
+        for (int i = 0; i < books.size(); i++) {
+            Book requested = books.get(i);
+            Book offered = books.get(random.nextInt(books.size()));
+            ExchangeRequest request = new ExchangeRequest();
+            request.setId((long) i + 1);
+            request.setRequester(offered.getSeller());
+            request.setOwner(requested.getSeller());
+            request.setRequestedBook(requested);
+            request.setOfferedBook(offered);
+            request.setStatus(ExchangeRequest.ExchangeStatus.values()[random.nextInt(ExchangeRequest.ExchangeStatus.values().length)]);
+            request.setMessage("Would you swap this for my copy of " + offered.getTitle() + "?");
+            request.setCreatedAt(requested.getCreatedAt().plusDays(1));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field declared = target.getClass().getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.set(target, value);
+    }
+}
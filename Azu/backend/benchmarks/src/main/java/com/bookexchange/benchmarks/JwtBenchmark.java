@@ -0,0 +1,94 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.entity.User;
+import com.bookexchange.security.AuthTokenFilter;
+import com.bookexchange.security.JwtUtils;
+import com.bookexchange.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification, plus the per-request authentication path before
+ * and after stateless claims-based authentication.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    private JwtUtils jwtUtils;
+    private AuthTokenFilter authTokenFilter;
+    private User user;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = Fixtures.jwtUtils();
+        authTokenFilter = new AuthTokenFilter(jwtUtils, 10_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        user = Fixtures.user(42);
+        UserPrincipal principal = UserPrincipal.create(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+        authTokenFilter.authenticate(token);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public UserPrincipal userPrincipalCreate() {
+        return UserPrincipal.create(user);
+    }
+
+    /**
+     * What every authenticated request used to do: derive the key, build a parser
+     * and verify the token to validate it, then all of that again to read the
+     * subject (the user row lookup that followed is not included).
+     */
+    @Benchmark
+    public String legacyValidateThenParse() {
+        SecretKey key = Keys.hmacShaKeyFor(Fixtures.JWT_SECRET.getBytes());
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        SecretKey again = Keys.hmacShaKeyFor(Fixtures.JWT_SECRET.getBytes());
+        return Jwts.parserBuilder().setSigningKey(again).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public UserPrincipal verifyClaimsUncached() {
+        Claims claims = jwtUtils.parseClaims(token);
+        return UserPrincipal.fromClaims(claims);
+    }
+
+    @Benchmark
+    public UserPrincipal authenticateCached() {
+        return authTokenFilter.authenticate(token);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.ratelimit.TokenBucketStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limiter's token buckets: a hit on a known client, a
+ * refused request, clients spread over 50k addresses from one and from four threads,
+ * and a stream of never-seen addresses that keeps the store at its bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+    private static final int CLIENTS = 50_000;
+
+    private TokenBucketStore open;
+    private TokenBucketStore exhausted;
+    private TokenBucketStore bounded;
+    private String[] addresses;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+        long fresh;
+
+        // Threads start apart, as different clients would.
+        @Setup
+        public void setUp() {
+            next = ThreadLocalRandom.current().nextInt(CLIENTS);
+            fresh = (long) next << 32;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // Never runs out, so every call takes a token.
+        open = new TokenBucketStore(Long.MAX_VALUE / 2, Duration.ofMinutes(1), 1_000_000, 16, 100_000);
+        exhausted = new TokenBucketStore(1, Duration.ofHours(1), 1, 16, 100_000);
+        exhausted.tryAcquire("10.0.0.1", System.nanoTime());
+        bounded = new TokenBucketStore(10, Duration.ofMinutes(1), 5, 16, 10_000);
+        addresses = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            addresses[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+            open.tryAcquire(addresses[i], System.nanoTime());
+        }
+    }
+
+    @Benchmark
+    public long knownClient() {
+        return open.tryAcquire(addresses[0], System.nanoTime());
+    }
+
+    @Benchmark
+    public long refused() {
+        return exhausted.tryAcquire("10.0.0.1", System.nanoTime());
+    }
+
+    @Benchmark
+    public long spreadClients(Cursor cursor) {
+        return open.tryAcquire(addresses[cursor.next++ % CLIENTS], System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long spreadClientsContended(Cursor cursor) {
+        return open.tryAcquire(addresses[cursor.next++ % CLIENTS], System.nanoTime());
+    }
+
+    @Benchmark
+    public long newClients(Cursor cursor) {
+        return bounded.tryAcquire(cursor.fresh++, System.nanoTime());
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.search.InvertedIndex;
+import com.bookexchange.search.SearchHits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search matching: the ranked inverted index for exact, search-as-you-type and
+ * misspelled queries, against the substring scan that /books/search used to run
+ * in SQL as LIKE '%term%' over title, author and isbn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    @Param({"1000", "20000"})
+    public int documents;
+
+    private InvertedIndex index;
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        books = Fixtures.books(documents, 3);
+        index = new InvertedIndex();
+        for (Book book : books) {
+            Map<InvertedIndex.Field, String> fields = new EnumMap<>(InvertedIndex.Field.class);
+            fields.put(InvertedIndex.Field.TITLE, book.getTitle());
+            fields.put(InvertedIndex.Field.AUTHOR, book.getAuthor());
+            fields.put(InvertedIndex.Field.ISBN, book.getIsbn());
+            fields.put(InvertedIndex.Field.DESCRIPTION, book.getDescription());
+            index.put(book.getId(), fields);
+        }
+    }
+
+    @Benchmark
+    public SearchHits indexExact() {
+        return index.search("winter kingdom", 0, 20);
+    }
+
+    @Benchmark
+    public SearchHits indexPrefix() {
+        return index.search("silent har", 0, 20);
+    }
+
+    @Benchmark
+    public SearchHits indexFuzzy() {
+        return index.search("tolkein", 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> substringScan() {
+        String term = "winter".toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>();
+        for (Book book : books) {
+            if (book.getTitle().toLowerCase(Locale.ROOT).contains(term)
+                    || book.getAuthor().toLowerCase(Locale.ROOT).contains(term)
+                    || book.getIsbn().contains(term)) {
+                ids.add(book.getId());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,90 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.ExchangeRequestView;
+import com.bookexchange.dto.JwtResponse;
+import com.bookexchange.dto.RatingSummaryView;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.ExchangeRequest;
+import com.bookexchange.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies at page-sized and export-sized list lengths, serialized with
+ * the same Jackson configuration the MVC layer uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<BookView> bookViews;
+    private List<ExchangeRequest> exchangeRequests;
+    private List<ExchangeRequestView> exchangeRequestViews;
+    private List<JwtResponse> jwtResponses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        books = Fixtures.books(size, 7);
+        exchangeRequests = Fixtures.exchangeRequests(books, 11);
+
+        RatingSummaryView rating = RatingSummaryView.from(null);
+        bookViews = books.stream().map(book -> BookView.from(book, book.getImages(), rating)).toList();
+        exchangeRequestViews = exchangeRequests.stream().map(ExchangeRequestView::from).toList();
+        String token = Fixtures.jwtUtils().generateJwtToken(
+                new UsernamePasswordAuthenticationToken(UserPrincipal.create(Fixtures.user(1)), null));
+        jwtResponses = books.stream()
+                .map(book -> new JwtResponse(token, book.getSeller().getId(), book.getSeller().getUsername(),
+                        book.getSeller().getEmail(), book.getSeller().getIsAdmin()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] bookEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] bookViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookViews);
+    }
+
+    @Benchmark
+    public byte[] exchangeRequestEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(exchangeRequests);
+    }
+
+    @Benchmark
+    public byte[] exchangeRequestViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(exchangeRequestViews);
+    }
+
+    @Benchmark
+    public byte[] jwtResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jwtResponses);
+    }
+}
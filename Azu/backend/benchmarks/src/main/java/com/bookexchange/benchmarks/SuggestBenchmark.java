@@ -0,0 +1,80 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.dto.SuggestionView;
+import com.bookexchange.entity.Book;
+import com.bookexchange.search.BookSuggestIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead: top-10 completions from the suggestion index for one-, three- and
+ * six-letter prefixes, the cost of re-indexing a retitled listing, and the
+ * substring scan over titles and authors that each keystroke used to trigger.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestBenchmark {
+    @Param({"20000", "200000"})
+    public int documents;
+
+    private BookSuggestIndex index;
+    private List<Book> books;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        books = Fixtures.books(documents, 7);
+        index = new BookSuggestIndex(10);
+        books.forEach(index::index);
+    }
+
+    @Benchmark
+    public List<SuggestionView> oneLetter() {
+        return index.suggest("s", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionView> threeLetters() {
+        return index.suggest("win", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionView> twoWords() {
+        return index.suggest("silent ri", 10);
+    }
+
+    // Alternates each listing between two titles so every call really moves weights.
+    @Benchmark
+    public BookSuggestIndex retitleListing() {
+        Book book = books.get(next++ % books.size());
+        String title = book.getTitle();
+        book.setTitle(title.endsWith(" ii") ? title.substring(0, title.length() - 3) : title + " ii");
+        index.index(book);
+        return index;
+    }
+
+    @Benchmark
+    public List<Book> substringScan() {
+        return books.stream()
+                .filter(book -> book.getTitle().toLowerCase(Locale.ROOT).contains("win")
+                        || book.getAuthor().toLowerCase(Locale.ROOT).contains("win"))
+                .toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.ExchangeRequestView;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book and exchange request lists in each encoding the API negotiates: encoded as the
+ * server writes them, decoded as a client reads them back. {@link WireFormatSizes}
+ * prints the payload sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookView> books;
+    private List<ExchangeRequestView> exchangeRequests;
+    private byte[] encodedBooks;
+    private byte[] encodedExchangeRequests;
+    private JavaType bookListType;
+    private JavaType exchangeRequestListType;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Fixtures.objectMapper(Fixtures.wireFormat(format));
+        books = WireFormatSizes.bookViews(size);
+        exchangeRequests = WireFormatSizes.exchangeRequestViews(size);
+        encodedBooks = objectMapper.writeValueAsBytes(books);
+        encodedExchangeRequests = objectMapper.writeValueAsBytes(exchangeRequests);
+        bookListType = objectMapper.getTypeFactory().constructCollectionType(List.class, BookView.class);
+        exchangeRequestListType = objectMapper.getTypeFactory().constructCollectionType(List.class, ExchangeRequestView.class);
+    }
+
+    @Benchmark
+    public byte[] encodeBooks() throws IOException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public List<BookView> decodeBooks() throws IOException {
+        return objectMapper.readValue(encodedBooks, bookListType);
+    }
+
+    @Benchmark
+    public byte[] encodeExchangeRequests() throws IOException {
+        return objectMapper.writeValueAsBytes(exchangeRequests);
+    }
+
+    @Benchmark
+    public List<ExchangeRequestView> decodeExchangeRequests() throws IOException {
+        return objectMapper.readValue(encodedExchangeRequests, exchangeRequestListType);
+    }
+}
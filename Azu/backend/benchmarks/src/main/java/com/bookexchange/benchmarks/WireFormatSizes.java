@@ -0,0 +1,68 @@
+package com.bookexchange.benchmarks;
+
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.ExchangeRequestView;
+import com.bookexchange.dto.RatingSummaryView;
+import com.bookexchange.entity.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prints the size of the {@link WireFormatBenchmark} payloads in each encoding, as
+ * sent and gzipped (as the server compresses larger responses), relative to JSON.
+ */
+public final class WireFormatSizes {
+    private static final String[] FORMATS = {"json", "cbor", "smile"};
+    private static final int[] SIZES = {20, 100, 1000};
+
+    private WireFormatSizes() {}
+
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%-18s %6s %-6s %10s %7s %10s %7s%n", "payload", "items", "format", "bytes", "vs json",
+                "gzipped", "vs json");
+        for (int size : SIZES) {
+            print("books", size, bookViews(size));
+            print("exchange requests", size, exchangeRequestViews(size));
+        }
+    }
+
+    static List<BookView> bookViews(int size) {
+        RatingSummaryView rating = RatingSummaryView.from(null);
+        return Fixtures.books(size, 7).stream()
+                .map(book -> BookView.from(book, book.getImages(), rating))
+                .toList();
+    }
+
+    static List<ExchangeRequestView> exchangeRequestViews(int size) {
+        List<Book> books = Fixtures.books(size, 7);
+        return Fixtures.exchangeRequests(books, 11).stream().map(ExchangeRequestView::from).toList();
+    }
+
+    private static void print(String payload, int size, Object value) throws IOException {
+        long json = 0;
+        long jsonGzipped = 0;
+        for (String format : FORMATS) {
+            ObjectMapper objectMapper = Fixtures.objectMapper(Fixtures.wireFormat(format));
+            byte[] encoded = objectMapper.writeValueAsBytes(value);
+            long gzipped = gzip(encoded);
+            if (format.equals("json")) {
+                json = encoded.length;
+                jsonGzipped = gzipped;
+            }
+            System.out.printf("%-18s %6d %-6s %10d %6.0f%% %10d %6.0f%%%n", payload, size, format, encoded.length,
+                    100.0 * encoded.length / json, gzipped, 100.0 * gzipped / jsonGzipped);
+        }
+    }
+
+    private static long gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,174 @@
+package com.bookexchange.benchmarks.load;
+
+import com.bookexchange.loadtest.SyntheticDataGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The user journeys the load generator replays against a running node. Ids,
+ * credentials and search terms follow SyntheticDataGenerator, so every request
+ * addresses data that exists.
+ */
+class Flows {
+    enum Flow { BROWSE, SEARCH, LOGIN, WISHLIST, EXCHANGE }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadGenerator.Options options;
+    private final LatencyReport report;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Session> sessions = Collections.synchronizedList(new ArrayList<>());
+
+    Flows(HttpClient client, LoadGenerator.Options options, LatencyReport report) {
+        this.client = client;
+        this.baseUrl = options.baseUrl;
+        this.options = options;
+        this.report = report;
+    }
+
+    /**
+     * Signs in a pool of users up front so authenticated flows do not each pay for a
+     * password hash check; the LOGIN flow measures that separately.
+     */
+    void openSessions(int count, long seed) {
+        Random random = new Random(seed);
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            userIds.add(1 + (long) random.nextInt(options.users));
+        }
+        userIds.parallelStream().forEach(userId -> {
+            try {
+                HttpResponse<String> response = client.send(signIn(userId), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    sessions.add(new Session(userId, objectMapper.readTree(response.body()).get("token").asText()));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Sign-in failed for user " + userId, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No session could be opened; is the app running with the loadtest profile?");
+        }
+    }
+
+    void run(Flow flow, Random random, long intendedStart) throws InterruptedException {
+        switch (flow) {
+            case BROWSE -> browse(random, intendedStart);
+            case SEARCH -> search(random, intendedStart);
+            case LOGIN -> send("POST /auth/signin", signIn(1 + (long) random.nextInt(options.users)), intendedStart);
+            case WISHLIST -> wishlist(random, intendedStart);
+            case EXCHANGE -> exchange(random, intendedStart);
+        }
+    }
+
+    private void browse(Random random, long intendedStart) throws InterruptedException {
+        HttpResponse<String> first = send("GET /books", get("/books?limit=20", null), intendedStart);
+        String cursor = first == null ? null : field(first.body(), "nextCursor");
+        if (cursor != null) {
+            send("GET /books?cursor", get("/books?limit=20&cursor=" + cursor, null), System.nanoTime());
+        }
+        send("GET /books/{id}", get("/books/" + randomBook(random), null), System.nanoTime());
+    }
+
+    private void search(Random random, long intendedStart) throws InterruptedException {
+        List<String> words = SyntheticDataGenerator.WORDS;
+        String query = words.get(random.nextInt(words.size()));
+        if (random.nextBoolean()) {
+            // A second, partially typed word exercises prefix expansion.
+            String next = words.get(random.nextInt(words.size()));
+            query += " " + next.substring(0, 2 + random.nextInt(next.length() - 1));
+        }
+        send("GET /books/search", get("/books/search?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8), null),
+                intendedStart);
+    }
+
+    private void wishlist(Random random, long intendedStart) throws InterruptedException {
+        Session session = session(random);
+        long bookId = randomBook(random);
+        send("GET /wishlist", get("/wishlist", session), intendedStart);
+        send("POST /wishlist/{id}", request("/wishlist/" + bookId, session)
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), System.nanoTime());
+        send("DELETE /wishlist/{id}", request("/wishlist/" + bookId, session).DELETE().build(), System.nanoTime());
+    }
+
+    private void exchange(Random random, long intendedStart) throws InterruptedException {
+        Session session = session(random);
+        long requested = randomBook(random);
+        long offered = randomBook(random);
+        String body = "{\"owner\":{\"id\":" + SyntheticDataGenerator.sellerOf(requested, options.users) + "}," +
+                "\"requestedBook\":{\"id\":" + requested + "},\"offeredBook\":{\"id\":" + offered + "}," +
+                "\"message\":\"Load test swap\"}";
+        send("POST /exchanges", request("/exchanges", session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), intendedStart);
+        send("GET /exchanges/sent", get("/exchanges/sent", session), System.nanoTime());
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request, long startNanos) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(endpoint, System.nanoTime() - startNanos, response.statusCode() < 400);
+            return response;
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - startNanos, false);
+            return null;
+        }
+    }
+
+    private HttpRequest signIn(long userId) {
+        String body = "{\"email\":\"" + SyntheticDataGenerator.email(userId) + "\",\"password\":\"" +
+                options.password + "\"}";
+        return request("/auth/signin", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path, Session session) {
+        return request(path, session).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (session != null) {
+            builder.header("Authorization", "Bearer " + session.token);
+        }
+        return builder;
+    }
+
+    private String field(String json, String name) {
+        try {
+            JsonNode value = objectMapper.readTree(json).get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long randomBook(Random random) {
+        return 1 + (long) random.nextInt(options.books);
+    }
+
+    private Session session(Random random) {
+        return sessions.get(random.nextInt(sessions.size()));
+    }
+
+    private record Session(long userId, String token) {}
+}
@@ -0,0 +1,109 @@
+package com.bookexchange.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counts. Nothing is recorded until
+ * {@link #start()} is called, so warm-up traffic does not skew the percentiles.
+ */
+class LatencyReport {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        stoppedAt = System.nanoTime();
+        recording = false;
+    }
+
+    void record(String endpoint, long latencyNanos, boolean ok) {
+        if (!recording) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latencies.recordValue(Math.min(Math.max(latencyNanos, 1), MAX_LATENCY_NANOS));
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedSeconds();
+        out.printf("%n%-28s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        Histogram all = new Histogram(MAX_LATENCY_NANOS, 3);
+        long errors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint stats = entry.getValue();
+            all.add(stats.latencies);
+            errors += stats.errors.sum();
+            row(out, entry.getKey(), stats.latencies, stats.errors.sum(), seconds);
+        }
+        row(out, "TOTAL", all, errors, seconds);
+        out.printf("%nmeasured %.1f s%n", seconds);
+    }
+
+    void writeJson(File file) throws IOException {
+        double seconds = elapsedSeconds();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("durationSeconds", seconds);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latencies = entry.getValue().latencies;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", latencies.getTotalCount());
+            result.put("errors", entry.getValue().errors.sum());
+            result.put("throughput", latencies.getTotalCount() / seconds);
+            result.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+            result.put("p95Ms", millis(latencies.getValueAtPercentile(95)));
+            result.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+            result.put("maxMs", millis(latencies.getMaxValue()));
+            results.put(entry.getKey(), result);
+        }
+        summary.put("endpoints", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, summary);
+    }
+
+    private double elapsedSeconds() {
+        long end = recording ? System.nanoTime() : stoppedAt;
+        return Math.max(1, end - startedAt) / 1e9;
+    }
+
+    private static void row(PrintStream out, String name, Histogram latencies, long errors, double seconds) {
+        out.printf("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, latencies.getTotalCount(), errors,
+                latencies.getTotalCount() / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(95)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,208 @@
+package com.bookexchange.benchmarks.load;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a node started with the {@code loadtest} profile and reports throughput
+ * and p50/p95/p99 latency per endpoint.
+ * <ul>
+ *   <li>closed model: {@code --concurrency} virtual users each run one flow after
+ *       another, so throughput is whatever the server sustains;</li>
+ *   <li>open model: flows start at a fixed {@code --rate} per second regardless of
+ *       how fast earlier ones finish. The first request of each flow is timed from
+ *       its scheduled start, so queueing shows up in the percentiles instead of
+ *       being hidden by a slower send rate.</li>
+ * </ul>
+ * Options are {@code --name=value}; see {@link Options} for names and defaults.
+ */
+public final class LoadGenerator {
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LatencyReport report = new LatencyReport();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Flows flows = new Flows(client, options, report);
+
+        System.out.printf("Opening %d sessions against %s%n", options.sessions, options.baseUrl);
+        flows.openSessions(options.sessions, options.seed);
+
+        System.out.printf("%s model, mix %s, %d s warm-up + %d s measured%n", options.model, options.mix,
+                options.warmupSeconds, options.durationSeconds);
+        long measureAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long endAt = measureAt + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        Thread starter = new Thread(() -> {
+            LockSupport.parkNanos(measureAt - System.nanoTime());
+            report.start();
+        });
+        starter.setDaemon(true);
+        starter.start();
+
+        long dropped = options.model.equals("open")
+                ? runOpen(flows, options, endAt)
+                : runClosed(flows, options, endAt);
+        report.stop();
+
+        report.print(System.out);
+        if (dropped > 0) {
+            System.out.printf("%d flows not started: more than %d in flight%n", dropped, options.maxInFlight);
+        }
+        report.writeJson(new File(options.out));
+        System.out.println("Results written to " + options.out);
+        System.exit(0);
+    }
+
+    private static long runClosed(Flows flows, Options options, long endAt) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            Random random = new Random(options.seed + i);
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < endAt) {
+                        flows.run(options.pick(random), random, System.nanoTime());
+                        if (options.thinkMillis > 0) {
+                            Thread.sleep(options.thinkMillis);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        return 0;
+    }
+
+    private static long runOpen(Flows flows, Options options, long endAt) throws InterruptedException {
+        ExecutorService workers = Executors.newCachedThreadPool();
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        Random scheduler = new Random(options.seed);
+        AtomicLong dropped = new AtomicLong();
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+
+        for (long next = System.nanoTime(); next < endAt; next += interval) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            if (!inFlight.tryAcquire()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            long intendedStart = next;
+            Flows.Flow flow = options.pick(scheduler);
+            long flowSeed = scheduler.nextLong();
+            workers.execute(() -> {
+                try {
+                    flows.run(flow, new Random(flowSeed), intendedStart);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        return dropped.get();
+    }
+
+    static final class Options {
+        String baseUrl = "http://localhost:8080/api";
+        String model = "closed";
+        int concurrency = 64;
+        int rate = 200;
+        int maxInFlight = 2000;
+        int warmupSeconds = 15;
+        int durationSeconds = 60;
+        int thinkMillis = 0;
+        String mix = "browse=40,search=25,login=5,wishlist=20,exchange=10";
+        int users = 100_000;
+        int books = 1_000_000;
+        String password = "loadtest";
+        int sessions = 256;
+        long seed = 1;
+        String out = "load-results.json";
+
+        private final List<Flows.Flow> flows = new ArrayList<>();
+        private final List<Integer> cumulativeWeights = new ArrayList<>();
+        private int totalWeight;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "base-url" -> options.baseUrl = value;
+                    case "model" -> options.model = value.toLowerCase(Locale.ROOT);
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "rate" -> options.rate = Integer.parseInt(value);
+                    case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "think-ms" -> options.thinkMillis = Integer.parseInt(value);
+                    case "mix" -> options.mix = value;
+                    case "users" -> options.users = Integer.parseInt(value);
+                    case "books" -> options.books = Integer.parseInt(value);
+                    case "password" -> options.password = value;
+                    case "sessions" -> options.sessions = Integer.parseInt(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "out" -> options.out = value;
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            if (!options.model.equals("closed") && !options.model.equals("open")) {
+                throw new IllegalArgumentException("--model must be closed or open");
+            }
+            options.parseMix();
+            return options;
+        }
+
+        Flows.Flow pick(Random random) {
+            int ticket = random.nextInt(totalWeight);
+            for (int i = 0; i < flows.size(); i++) {
+                if (ticket < cumulativeWeights.get(i)) {
+                    return flows.get(i);
+                }
+            }
+            throw new IllegalStateException("unreachable");
+        }
+
+        private void parseMix() {
+            Map<Flows.Flow, Integer> weights = new EnumMap<>(Flows.Flow.class);
+            for (String part : mix.split(",")) {
+                String[] entry = part.trim().split("=");
+                weights.put(Flows.Flow.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(entry[1].trim()));
+            }
+            for (Map.Entry<Flows.Flow, Integer> weight : weights.entrySet()) {
+                if (weight.getValue() > 0) {
+                    totalWeight += weight.getValue();
+                    flows.add(weight.getKey());
+                    cumulativeWeights.add(totalWeight);
+                }
+            }
+            if (totalWeight == 0) {
+                throw new IllegalArgumentException("--mix needs at least one flow with a positive weight");
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bookexchange.config;
+
+import com.bookexchange.entity.Book;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Book ids used to come from an IDENTITY column. Before the pooled table generator
+ * hands out its first block, move its high-water mark past every existing id so
+ * the two schemes can never collide. Bulk loaders that write explicit ids call
+ * this again afterwards.
+ */
+@Component
+public class BookIdGeneratorInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(BookIdGeneratorInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so the schema exists before we touch it.
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignWithExistingIds() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM books", Long.class);
+        if (maxId == null) {
+            return; // empty catalog: Hibernate seeds the generator row itself
+        }
+        long floor = maxId + Book.ID_ALLOCATION_SIZE + 1;
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_generators WHERE sequence_name = 'books'", Integer.class);
+        if (rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES ('books', ?)", floor);
+        } else if (jdbcTemplate.update("UPDATE id_generators SET next_val = ? " +
+                "WHERE sequence_name = 'books' AND next_val < ?", floor, floor) == 0) {
+            return;
+        }
+        logger.info("Book id generator moved to {}", floor);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bookexchange.config;
+
+import com.bookexchange.datasource.ReadRoutingInterceptor;
+import com.bookexchange.datasource.ReadWriteRoutingDataSource;
+import com.bookexchange.datasource.ReplicaProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single datasource with primary/replica routing once at least one
+ * {@code app.datasource.replicas[n].url} is configured. Replicas reuse the primary's
+ * driver and credentials unless they set their own.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+    private final ReplicaProperties replicaProperties;
+
+    public DataSourceRoutingConfig(ReplicaProperties replicaProperties) {
+        this.replicaProperties = replicaProperties;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 DataSourceProperties properties,
+                                                                 MeterRegistry registry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica replica = configured.get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(replica.getUrl());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            config.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            if (replica.getMaximumPoolSize() != null) {
+                config.setMaximumPoolSize(replica.getMaximumPoolSize());
+            } else if (primaryDataSource.getMaximumPoolSize() > 0) {
+                config.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            config.setReadOnly(true);
+            // A replica that is down at startup only starts out of rotation.
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                replicaProperties.getHealthCheckTimeout(), registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadRoutingInterceptor(replicaProperties.getReadYourWrites()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.bookexchange.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * The second-level cache's JCache manager is created here rather than by Hibernate
+ * so its regions can be published as {@code cache.*} metrics like the other caches.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.hibernate-cache.config:classpath:hibernate-cache.conf}") URI config) {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(config, getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+
+    // Takes the EntityManagerFactory so every region exists before it is bound.
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager, EntityManagerFactory entityManagerFactory) {
+        return registry -> hibernateCacheManager.getCacheNames().forEach(name ->
+                CaffeineCacheMetrics.monitor(registry,
+                        hibernateCacheManager.getCache(name).unwrap(com.github.benmanes.caffeine.cache.Cache.class),
+                        "hibernate." + name));
+    }
+}
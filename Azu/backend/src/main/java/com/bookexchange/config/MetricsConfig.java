@@ -0,0 +1,48 @@
+package com.bookexchange.config;
+
+import com.bookexchange.metrics.SqlMetricsFilter;
+import com.bookexchange.metrics.SqlStatementInspector;
+import com.bookexchange.metrics.SqlTimingListener;
+import com.bookexchange.security.AuthTokenFilter;
+import com.bookexchange.service.CatalogCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementMetrics() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+        };
+    }
+
+    // Outside the security chain, so statements issued while authenticating are counted too.
+    @Bean
+    public FilterRegistrationBean<SqlMetricsFilter> sqlMetricsFilter(MeterRegistry registry,
+                                                                     @Value("${app.metrics.query-budget.strict:false}") boolean strict) {
+        FilterRegistrationBean<SqlMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlMetricsFilter(registry, strict));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(CatalogCache catalogCache, AuthTokenFilter authTokenFilter) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, catalogCache.getPageCache(), "catalog.pages");
+            CaffeineCacheMetrics.monitor(registry, catalogCache.getBookCache(), "catalog.books");
+            CaffeineCacheMetrics.monitor(registry, authTokenFilter.getVerifiedTokens(), "jwt.verified-tokens");
+        };
+    }
+}
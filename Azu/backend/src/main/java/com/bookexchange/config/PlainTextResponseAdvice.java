@@ -0,0 +1,38 @@
+package com.bookexchange.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * String bodies, mostly error messages, are written as they are under whatever type
+ * was negotiated. Under a CBOR or Smile {@code Accept} that would label plain text
+ * as binary, so they are sent as {@code text/plain} instead.
+ */
+@ControllerAdvice
+public class PlainTextResponseAdvice implements ResponseBodyAdvice<Object> {
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return StringHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(selectedContentType) || SMILE.isCompatibleWith(selectedContentType)) {
+            response.getHeaders().setContentType(TEXT_PLAIN_UTF8);
+        }
+        return body;
+    }
+}
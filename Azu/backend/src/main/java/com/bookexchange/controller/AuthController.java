@@ -4,6 +4,7 @@ import com.bookexchange.dto.JwtResponse;
 import com.bookexchange.dto.LoginRequest;
 import com.bookexchange.dto.SignupRequest;
 import com.bookexchange.entity.User;
+import com.bookexchange.metrics.QueryBudget;
 import com.bookexchange.repository.UserRepository;
 import com.bookexchange.security.JwtUtils;
 import com.bookexchange.security.UserPrincipal;
@@ -34,6 +35,7 @@ public class AuthController {
     JwtUtils jwtUtils;
 
     @PostMapping("/signin")
+    @QueryBudget(1)
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
@@ -52,6 +54,7 @@ public class AuthController {
     }
 
     @PostMapping("/signup")
+    @QueryBudget(3)
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
             return ResponseEntity.badRequest()
@@ -1,61 +1,389 @@
 package com.bookexchange.controller;
 
+import com.bookexchange.datasource.ReplicaReads;
+import com.bookexchange.dto.BookCursor;
+import com.bookexchange.dto.BookImportReport;
+import com.bookexchange.dto.BookQuery;
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.CursorPage;
+import com.bookexchange.dto.FacetCounts;
+import com.bookexchange.dto.FieldSet;
+import com.bookexchange.dto.SearchPage;
+import com.bookexchange.dto.SlicePage;
+import com.bookexchange.dto.SuggestionView;
 import com.bookexchange.entity.Book;
 import com.bookexchange.entity.User;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.exception.BadRequestException;
+import com.bookexchange.image.ImageStore;
+import com.bookexchange.image.StagedImage;
+import com.bookexchange.metrics.QueryBudget;
 import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.BookSpecifications;
 import com.bookexchange.repository.UserRepository;
+import com.bookexchange.search.BookFacetIndex;
+import com.bookexchange.search.BookSearchIndex;
+import com.bookexchange.search.BookSuggestIndex;
+import com.bookexchange.search.SearchHits;
 import com.bookexchange.security.UserPrincipal;
+import com.bookexchange.service.BookImportService;
+import com.bookexchange.service.BookQueryService;
+import com.bookexchange.service.BookStreamService;
+import com.bookexchange.service.BookViewService;
+import com.bookexchange.service.CatalogCache;
+import com.bookexchange.service.CatalogVersion;
+import com.bookexchange.service.RatingSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.MultiValueMap;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/books")
+@ReplicaReads
 public class BookController {
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookStreamService bookStreamService;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private BookSuggestIndex bookSuggestIndex;
+
+    @Autowired
+    private BookViewService bookViewService;
+
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookQueryService bookQueryService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Value("${app.catalog.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.catalog.max-query-offset:10000}")
+    private int maxQueryOffset;
+
+    @Value("${app.images.max-per-book:10}")
+    private int maxImagesPerBook;
+
+    @Value("${app.export.overlap:5m}")
+    private Duration exportOverlap;
+
     @GetMapping
-    public List<Book> getAllBooks() {
-        return bookRepository.findByIsAvailableTrueOrderByCreatedAtDesc();
+    @QueryBudget(3)
+    public CursorPage<?> getAllBooks(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String fields,
+                                     ServletWebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.catalog();
+        if (catalogVersion.checkNotModified(request, version)) {
+            return null;
+        }
+        BookCursor from = BookCursor.decode(cursor);
+        int size = pageSize(limit);
+        FieldSet selected = bookFields(fields);
+        if (selected != null) {
+            return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.ALL, variant(from, size, selected), () ->
+                    sparsePage(BookSpecifications.isAvailable(), from, size, selected)));
+        }
+        return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.ALL, variant(from, size), () ->
+                page(bookRepository.findAvailableAfter(from.getCreatedAt(), from.getId(), PageRequest.ofSize(size + 1)), size)));
+    }
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(@RequestParam(required = false) String cursor) {
+        BookCursor from = BookCursor.decode(cursor);
+        return ndjson(() -> bookRepository.streamAvailableAfter(from.getCreatedAt(), from.getId()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        Optional<Book> book = bookRepository.findById(id);
-        return book.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    @QueryBudget(2)
+    public ResponseEntity<BookView> getBookById(@PathVariable Long id, ServletWebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.book(id);
+        if (catalogVersion.checkNotModified(request, version)) {
+            return null;
+        }
+        BookView book = catalogCache.getBook(id, bookId ->
+                bookRepository.findWithSellerAndImagesById(bookId).map(bookViewService::toView).orElse(null));
+        return book != null ? ResponseEntity.ok(catalogVersion.withValidators(request, version, book)) : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/search")
-    public List<Book> searchBooks(@RequestParam String q) {
-        return bookRepository.findBySearchTerm(q);
+    @QueryBudget(3)
+    public SearchPage<?> searchBooks(@RequestParam String q,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String fields) {
+        int size = pageSize(limit);
+        int pageNumber = Math.max(page, 0);
+        if ((long) pageNumber * size > maxQueryOffset) {
+            throw new BadRequestException("page is too deep; narrow the query instead");
+        }
+        FieldSet selected = bookFields(fields);
+        SearchHits hits = bookSearchIndex.search(q, pageNumber * size, size);
+        if (selected != null) {
+            Map<Object, Map<String, Object>> rowsById = bookViewService.findColumns(selected,
+                            BookSpecifications.idIn(hits.getIds()), (book, cb) -> List.of(), 0, 0).stream()
+                    .collect(Collectors.toMap(row -> row.get("id"), Function.identity()));
+            List<Map<String, Object>> rankedRows = hits.getIds().stream()
+                    .map(rowsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            return new SearchPage<>(bookViewService.toSparseViews(rankedRows, selected), pageNumber, size, hits.getTotal());
+        }
+
+        Map<Long, BookView> byId = bookViewService.toViews(bookRepository.findWithSellerByIdIn(hits.getIds())).stream()
+                .collect(Collectors.toMap(BookView::getId, Function.identity()));
+        List<BookView> ranked = hits.getIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SearchPage<>(ranked, pageNumber, size, hits.getTotal());
+    }
+
+    @GetMapping("/suggest")
+    @QueryBudget(0)
+    public List<SuggestionView> suggest(@RequestParam String q,
+                                        @RequestParam(required = false) Integer limit) {
+        return bookSuggestIndex.suggest(q, limit);
+    }
+
+    @GetMapping("/query")
+    @QueryBudget(3)
+    public SlicePage<?> queryBooks(BookQuery query, @RequestParam(required = false) String fields,
+                                   ServletWebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.catalog();
+        if (catalogVersion.checkNotModified(request, version)) {
+            return null;
+        }
+        int size = pageSize(query.getLimit());
+        int pageNumber = query.getPage() == null ? 0 : Math.max(query.getPage(), 0);
+        if ((long) pageNumber * size > maxQueryOffset) {
+            throw new BadRequestException("page is too deep; narrow the filters instead");
+        }
+        BookQueryService.parseSort(query.getSort());
+        FieldSet selected = bookFields(fields);
+        if (selected != null) {
+            return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.QUERY,
+                    query.cacheKey() + "|" + pageNumber + "|" + size + "|" + selected.key(),
+                    () -> bookQueryService.query(query, selected, pageNumber, size)));
+        }
+        return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.QUERY, query.cacheKey() + "|" + pageNumber + "|" + size,
+                () -> bookQueryService.query(query, pageNumber, size)));
+    }
+
+    @GetMapping("/facets")
+    @QueryBudget(0)
+    public FacetCounts getFacets(@RequestParam MultiValueMap<String, String> params) {
+        return bookFacetIndex.counts(params);
     }
 
     @GetMapping("/genre/{genre}")
-    public List<Book> getBooksByGenre(@PathVariable String genre) {
-        return bookRepository.findByGenreAndIsAvailableTrue(genre);
+    @QueryBudget(3)
+    public CursorPage<?> getBooksByGenre(@PathVariable String genre,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String fields,
+                                         ServletWebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.catalog();
+        if (catalogVersion.checkNotModified(request, version)) {
+            return null;
+        }
+        BookCursor from = BookCursor.decode(cursor);
+        int size = pageSize(limit);
+        FieldSet selected = bookFields(fields);
+        if (selected != null) {
+            return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.genre(genre), variant(from, size, selected), () ->
+                    sparsePage(BookSpecifications.inGenre(genre), from, size, selected)));
+        }
+        return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.genre(genre), variant(from, size), () ->
+                page(bookRepository.findByGenreAfter(genre, from.getCreatedAt(), from.getId(), PageRequest.ofSize(size + 1)), size)));
+    }
+
+    @GetMapping(value = "/genre/{genre}", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamBooksByGenre(@PathVariable String genre,
+                                                                    @RequestParam(required = false) String cursor) {
+        BookCursor from = BookCursor.decode(cursor);
+        return ndjson(() -> bookRepository.streamByGenreAfter(genre, from.getCreatedAt(), from.getId()));
     }
 
     @GetMapping("/for-sale")
-    public List<Book> getBooksForSale() {
-        return bookRepository.findByForSaleTrueAndIsAvailableTrue();
+    @QueryBudget(3)
+    public CursorPage<?> getBooksForSale(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String fields,
+                                         ServletWebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.catalog();
+        if (catalogVersion.checkNotModified(request, version)) {
+            return null;
+        }
+        BookCursor from = BookCursor.decode(cursor);
+        int size = pageSize(limit);
+        FieldSet selected = bookFields(fields);
+        if (selected != null) {
+            return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.FOR_SALE, variant(from, size, selected), () ->
+                    sparsePage(BookSpecifications.forSale(), from, size, selected)));
+        }
+        return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.FOR_SALE, variant(from, size), () ->
+                page(bookRepository.findForSaleAfter(from.getCreatedAt(), from.getId(), PageRequest.ofSize(size + 1)), size)));
+    }
+
+    @GetMapping(value = "/for-sale", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamBooksForSale(@RequestParam(required = false) String cursor) {
+        BookCursor from = BookCursor.decode(cursor);
+        return ndjson(() -> bookRepository.streamForSaleAfter(from.getCreatedAt(), from.getId()));
     }
 
     @GetMapping("/for-exchange")
-    public List<Book> getBooksForExchange() {
-        return bookRepository.findByForExchangeTrueAndIsAvailableTrue();
+    @QueryBudget(3)
+    public CursorPage<?> getBooksForExchange(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String fields,
+                                             ServletWebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.catalog();
+        if (catalogVersion.checkNotModified(request, version)) {
+            return null;
+        }
+        BookCursor from = BookCursor.decode(cursor);
+        int size = pageSize(limit);
+        FieldSet selected = bookFields(fields);
+        if (selected != null) {
+            return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.FOR_EXCHANGE, variant(from, size, selected), () ->
+                    sparsePage(BookSpecifications.forExchange(), from, size, selected)));
+        }
+        return catalogVersion.withValidators(request, version, catalogCache.getPage(CatalogCache.FOR_EXCHANGE, variant(from, size), () ->
+                page(bookRepository.findForExchangeAfter(from.getCreatedAt(), from.getId(), PageRequest.ofSize(size + 1)), size)));
+    }
+
+    @GetMapping(value = "/for-exchange", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamBooksForExchange(@RequestParam(required = false) String cursor) {
+        BookCursor from = BookCursor.decode(cursor);
+        return ndjson(() -> bookRepository.streamForExchangeAfter(from.getCreatedAt(), from.getId()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(@RequestParam(defaultValue = "ndjson") String format,
+                                                               @RequestParam(required = false) String since,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            throw new BadRequestException("format must be ndjson or csv");
+        }
+        BookCursor from = since == null || since.isBlank() ? BookCursor.ORIGIN : BookCursor.decode(since);
+        // created_at is stamped at flush, not commit, so a row may commit after a later one was
+        // exported. An incremental export re-reads the overlap before its watermark to catch it;
+        // rows already sent come again and are applied by id.
+        BookCursor after = from == BookCursor.ORIGIN ? from
+                : new BookCursor(from.getCreatedAt().minus(exportOverlap), 0L);
+        // Rows committed while the export runs are left for the next watermark.
+        BookCursor to = bookRepository.findLatestPosition(PageRequest.ofSize(1)).stream()
+                .filter(latest -> latest.isAfter(from))
+                .findFirst()
+                .orElse(from);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        Supplier<Stream<Book>> source = () -> bookRepository.streamCatalogBetween(
+                after.getCreatedAt(), after.getId(), to.getCreatedAt(), to.getId());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books." + (csv ? "csv" : "ndjson") + "\"")
+                .header("X-Export-Watermark", to.encode());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip").header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        return response.body(out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            if (csv) {
+                bookStreamService.writeCsv(source, bookViewService::toViews, BookView.CSV_HEADER,
+                        BookView::toCsvRecord, target);
+            } else {
+                bookStreamService.writeNdjson(source, bookViewService::toViews, target);
+            }
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        });
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (userPrincipal.getAuthorities().stream()
+                .noneMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"))) {
+            return ResponseEntity.status(403).body("Access denied");
+        }
+
+        return ResponseEntity.ok(catalogCache.getStats());
     }
 
     @PostMapping
+    @QueryBudget(3)
+    @Transactional
     public ResponseEntity<?> createBook(@Valid @RequestBody Book book, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Optional<User> user = userRepository.findById(userPrincipal.getId());
@@ -66,14 +394,31 @@ public class BookController {
 
         book.setSeller(user.get());
         Book savedBook = bookRepository.save(book);
-        return ResponseEntity.ok(savedBook);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.Type.CREATED, savedBook, null));
+        return ResponseEntity.ok(bookViewService.toView(savedBook));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public BookImportReport importBooksCsv(InputStream body, @RequestParam(required = false) Integer batchSize,
+                                           Authentication authentication) throws IOException {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return bookImportService.importCsv(body, userPrincipal.getId(), batchSize);
+    }
+
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public BookImportReport importBooksNdjson(InputStream body, @RequestParam(required = false) Integer batchSize,
+                                              Authentication authentication) throws IOException {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return bookImportService.importNdjson(body, userPrincipal.getId(), batchSize);
     }
 
     @PutMapping("/{id}")
+    @QueryBudget(5)
+    @Transactional
     public ResponseEntity<?> updateBook(@PathVariable Long id, @Valid @RequestBody Book bookDetails, 
                                        Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        Optional<Book> bookOptional = bookRepository.findById(id);
+        Optional<Book> bookOptional = bookRepository.findWithSellerAndImagesById(id);
         
         if (bookOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -88,6 +433,8 @@ public class BookController {
             return ResponseEntity.status(403).body("Access denied");
         }
 
+        String previousGenre = book.getGenre();
+        Boolean previousAvailable = book.getIsAvailable();
         book.setTitle(bookDetails.getTitle());
         book.setAuthor(bookDetails.getAuthor());
         book.setIsbn(bookDetails.getIsbn());
@@ -104,10 +451,58 @@ public class BookController {
         book.setIsAvailable(bookDetails.getIsAvailable());
 
         Book updatedBook = bookRepository.save(book);
-        return ResponseEntity.ok(updatedBook);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.Type.UPDATED, updatedBook, previousGenre, previousAvailable));
+        return ResponseEntity.ok(bookViewService.toView(updatedBook));
+    }
+
+    // Appends the photo's URL to the book's images; the file is stored and its thumbnails queued once that commits.
+    @PostMapping(value = "/{id}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @QueryBudget(5)
+    @Transactional
+    public ResponseEntity<?> uploadImage(@PathVariable Long id, @RequestParam("file") MultipartFile file,
+                                         Authentication authentication) throws IOException {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Optional<Book> bookOptional = bookRepository.findWithSellerAndImagesById(id);
+
+        if (bookOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Book book = bookOptional.get();
+
+        // Check if user owns the book or is admin
+        if (!book.getSeller().getId().equals(userPrincipal.getId()) &&
+            !userPrincipal.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"))) {
+            return ResponseEntity.status(403).body("Access denied");
+        }
+
+        List<String> images = book.getImages() == null ? new ArrayList<>() : new ArrayList<>(book.getImages());
+        if (images.size() >= maxImagesPerBook) {
+            return ResponseEntity.badRequest().body("A book can have at most " + maxImagesPerBook + " images");
+        }
+
+        StagedImage staged;
+        try (InputStream in = file.getInputStream()) {
+            staged = imageStore.stage(in);
+        }
+        eventPublisher.publishEvent(staged);
+
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath().path("/images/{name}").buildAndExpand(staged.name()).toUriString();
+        if (images.contains(url)) {
+            return ResponseEntity.ok(bookViewService.toView(book));
+        }
+        images.add(url);
+        String previousGenre = book.getGenre();
+        Boolean previousAvailable = book.getIsAvailable();
+        book.setImages(images);
+        Book updatedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.Type.UPDATED, updatedBook, previousGenre, previousAvailable));
+        return ResponseEntity.ok(bookViewService.toView(updatedBook));
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteBook(@PathVariable Long id, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Optional<Book> bookOptional = bookRepository.findById(id);
@@ -125,7 +520,93 @@ public class BookController {
             return ResponseEntity.status(403).body("Access denied");
         }
 
+        // Published first so synchronous listeners still see the book's wishlist rows.
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.Type.DELETED, book, null));
         bookRepository.delete(book);
+        ratingSummaryService.deleteForBook(id);
         return ResponseEntity.ok().build();
     }
+
+    // gzip is acceptable when listed with q > 0, or when not listed and a * with q > 0 covers it.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = q;
+            } else if (coding.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return gzip != null ? gzip > 0 : wildcard != null && wildcard > 0;
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<?> handleBadRequest(BadRequestException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private static String variant(BookCursor from, int size) {
+        return from.encode() + "|" + size;
+    }
+
+    private static String variant(BookCursor from, int size, FieldSet fields) {
+        return variant(from, size) + "|" + fields.key();
+    }
+
+    private static FieldSet bookFields(String fields) {
+        return FieldSet.parse(fields, BookView.FIELDS, BookView.SUMMARY_FIELDS);
+    }
+
+    // Rows are fetched with size + 1 so the extra row tells us whether another page exists.
+    private CursorPage<BookView> page(List<Book> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(bookViewService.toViews(rows), null);
+        }
+        Book last = rows.get(size - 1);
+        return new CursorPage<>(bookViewService.toViews(rows.subList(0, size)),
+                new BookCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    // The sparse counterpart of page: one SELECT of the requested columns, with the same cursor.
+    private CursorPage<Map<String, Object>> sparsePage(Specification<Book> listing, BookCursor from, int size,
+                                                       FieldSet fields) {
+        List<Map<String, Object>> rows = bookViewService.findColumns(fields, listing.and(BookSpecifications.after(from)),
+                (book, cb) -> BookQueryService.orderBy(BookQueryService.Sort.NEWEST, book, cb), 0, size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(bookViewService.toSparseViews(rows, fields), null);
+        }
+        Map<String, Object> last = rows.get(size - 1);
+        return new CursorPage<>(bookViewService.toSparseViews(rows.subList(0, size), fields),
+                new BookCursor((LocalDateTime) last.get("createdAt"), (Long) last.get("id")).encode());
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<Book>> source) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> bookStreamService.writeNdjson(source, bookViewService::toViews, out));
+    }
 }
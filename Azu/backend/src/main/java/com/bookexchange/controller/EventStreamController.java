@@ -0,0 +1,26 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.metrics.QueryBudget;
+import com.bookexchange.push.UserEventStream;
+import com.bookexchange.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/events")
+public class EventStreamController {
+    @Autowired
+    private UserEventStream userEventStream;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @QueryBudget(0)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return userEventStream.subscribe(userPrincipal.getId(), lastEventId);
+    }
+}
@@ -1,20 +1,36 @@
 package com.bookexchange.controller;
 
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.ExchangeLegView;
+import com.bookexchange.dto.ExchangeMatchView;
+import com.bookexchange.dto.ExchangeRequestView;
 import com.bookexchange.entity.ExchangeRequest;
 import com.bookexchange.entity.User;
 import com.bookexchange.entity.Book;
+import com.bookexchange.event.ExchangeRequestChangedEvent;
+import com.bookexchange.matching.ExchangeCycle;
+import com.bookexchange.matching.ExchangeMatcher;
+import com.bookexchange.metrics.QueryBudget;
 import com.bookexchange.repository.ExchangeRequestRepository;
 import com.bookexchange.repository.UserRepository;
 import com.bookexchange.repository.BookRepository;
 import com.bookexchange.security.UserPrincipal;
+import com.bookexchange.service.BookViewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -29,19 +45,78 @@ public class ExchangeController {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookViewService bookViewService;
+
+    @Autowired
+    private ExchangeMatcher exchangeMatcher;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.exchange.matching.max-length:4}")
+    private int maxCycleLength;
+
+    @Value("${app.exchange.matching.max-results:50}")
+    private int maxMatches;
+
     @GetMapping("/sent")
-    public List<ExchangeRequest> getSentRequests(Authentication authentication) {
+    @QueryBudget(1)
+    public List<ExchangeRequestView> getSentRequests(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return exchangeRequestRepository.findByRequesterIdOrderByCreatedAtDesc(userPrincipal.getId());
+        return exchangeRequestRepository.findByRequesterIdOrderByCreatedAtDesc(userPrincipal.getId()).stream()
+                .map(ExchangeRequestView::from)
+                .toList();
     }
 
     @GetMapping("/received")
-    public List<ExchangeRequest> getReceivedRequests(Authentication authentication) {
+    @QueryBudget(1)
+    public List<ExchangeRequestView> getReceivedRequests(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return exchangeRequestRepository.findByOwnerIdOrderByCreatedAtDesc(userPrincipal.getId());
+        return exchangeRequestRepository.findByOwnerIdOrderByCreatedAtDesc(userPrincipal.getId()).stream()
+                .map(ExchangeRequestView::from)
+                .toList();
+    }
+
+    @GetMapping("/matches")
+    @QueryBudget(3)
+    public List<ExchangeMatchView> getMatches(@RequestParam(required = false) Integer maxLength,
+                                              @RequestParam(defaultValue = "20") int limit,
+                                              Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        int length = maxLength == null ? maxCycleLength : Math.max(2, Math.min(maxLength, maxCycleLength));
+        List<ExchangeCycle> cycles = exchangeMatcher.findCycles(userPrincipal.getId(), length,
+                Math.max(1, Math.min(limit, maxMatches)));
+        if (cycles.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> bookIds = cycles.stream().flatMap(cycle -> cycle.getBookIds().stream()).distinct().toList();
+        Map<Long, BookView> books = bookViewService.toViews(bookRepository.findWithSellerByIdIn(bookIds)).stream()
+                .collect(Collectors.toMap(BookView::getId, Function.identity()));
+
+        List<ExchangeMatchView> matches = new ArrayList<>(cycles.size());
+        for (ExchangeCycle cycle : cycles) {
+            List<ExchangeLegView> legs = new ArrayList<>(cycle.size());
+            for (int i = 0; i < cycle.size(); i++) {
+                BookView book = books.get(cycle.getBookIds().get(i));
+                BookView next = books.get(cycle.getBookIds().get((i + 1) % cycle.size()));
+                if (book == null || next == null || !book.getSellerId().equals(cycle.getUserIds().get(i))) {
+                    break; // changed since the graph saw it
+                }
+                legs.add(new ExchangeLegView(book.getSellerId(), book.getSellerName(),
+                        next.getSellerId(), next.getSellerName(), book));
+            }
+            if (legs.size() == cycle.size()) {
+                matches.add(new ExchangeMatchView(legs));
+            }
+        }
+        return matches;
     }
 
     @PostMapping
+    @QueryBudget(5)
+    @Transactional
     public ResponseEntity<?> createExchangeRequest(@Valid @RequestBody ExchangeRequest exchangeRequest, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Optional<User> requester = userRepository.findById(userPrincipal.getId());
@@ -59,13 +134,16 @@ public class ExchangeController {
         exchangeRequest.setOfferedBook(offeredBook.get());
         
         ExchangeRequest savedRequest = exchangeRequestRepository.save(exchangeRequest);
-        return ResponseEntity.ok(savedRequest);
+        ExchangeRequestView view = ExchangeRequestView.from(savedRequest);
+        eventPublisher.publishEvent(new ExchangeRequestChangedEvent(ExchangeRequestChangedEvent.Type.CREATED, view));
+        return ResponseEntity.ok(view);
     }
 
     @PutMapping("/{id}/status")
+    @Transactional
     public ResponseEntity<?> updateExchangeStatus(@PathVariable Long id, @RequestBody ExchangeRequest.ExchangeStatus status, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        Optional<ExchangeRequest> requestOptional = exchangeRequestRepository.findById(id);
+        Optional<ExchangeRequest> requestOptional = exchangeRequestRepository.findWithPartiesById(id);
         
         if (requestOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -79,7 +157,9 @@ public class ExchangeController {
         }
 
         request.setStatus(status);
-        ExchangeRequest updatedRequest = exchangeRequestRepository.save(request);
-        return ResponseEntity.ok(updatedRequest);
+        exchangeRequestRepository.save(request);
+        ExchangeRequestView view = ExchangeRequestView.from(request);
+        eventPublisher.publishEvent(new ExchangeRequestChangedEvent(ExchangeRequestChangedEvent.Type.STATUS_CHANGED, view));
+        return ResponseEntity.ok(view);
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.image.FileSender;
+import com.bookexchange.image.ImageStore;
+import com.bookexchange.image.ImageVariant;
+import com.bookexchange.image.ThumbnailGenerator;
+import com.bookexchange.metrics.QueryBudget;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/images")
+public class ImageController {
+    // A stored file never changes, so caches may keep it for good.
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ThumbnailGenerator thumbnailGenerator;
+
+    @RequestMapping(value = "/{name}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    @QueryBudget(0)
+    public void getImage(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = ImageStore.isOriginalName(name) ? imageStore.original(name) : null;
+        if (file == null || !Files.exists(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        FileSender.send(request, response, file, ImageStore.contentType(name),
+                "\"" + ImageStore.hashOf(name) + "\"", IMMUTABLE);
+    }
+
+    // Until the thumbnail is rendered the original is sent, marked for revalidation so the thumbnail replaces it later.
+    @RequestMapping(value = "/{variant}/{name}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    @QueryBudget(0)
+    public void getThumbnail(@PathVariable String variant, @PathVariable String name,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageVariant imageVariant = ImageVariant.fromPathName(variant);
+        if (imageVariant == null || !ImageStore.isVariantName(name)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String hash = ImageStore.hashOf(name);
+        Path thumbnail = imageStore.variant(imageVariant, name);
+        if (Files.exists(thumbnail)) {
+            FileSender.send(request, response, thumbnail, "image/jpeg",
+                    "\"" + hash + "-" + imageVariant.pathName() + "\"", IMMUTABLE);
+            return;
+        }
+
+        for (String extension : new String[] {"jpg", "png", "gif"}) {
+            String originalName = hash + "." + extension;
+            Path original = imageStore.original(originalName);
+            if (Files.exists(original)) {
+                thumbnailGenerator.submit(originalName);
+                FileSender.send(request, response, original, ImageStore.contentType(originalName),
+                        "\"" + hash + "\"", "no-cache");
+                return;
+            }
+        }
+        response.sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+}
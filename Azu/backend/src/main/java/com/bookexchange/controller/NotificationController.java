@@ -0,0 +1,69 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.dto.CursorPage;
+import com.bookexchange.dto.NotificationView;
+import com.bookexchange.entity.Notification;
+import com.bookexchange.metrics.QueryBudget;
+import com.bookexchange.repository.NotificationRepository;
+import com.bookexchange.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/notifications")
+public class NotificationController {
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${app.catalog.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    // Newest first; the cursor is the id of the last entry of the previous page.
+    @GetMapping
+    @QueryBudget(1)
+    public ResponseEntity<?> getNotifications(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        long before;
+        try {
+            before = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        List<Notification> rows = notificationRepository.findByUserIdAndIdLessThanOrderByIdDesc(
+                userPrincipal.getId(), before, PageRequest.ofSize(size + 1));
+        List<NotificationView> items = rows.stream().limit(size).map(NotificationView::from).toList();
+        String next = rows.size() > size ? String.valueOf(items.get(size - 1).getId()) : null;
+        return ResponseEntity.ok(new CursorPage<>(items, next));
+    }
+
+    @GetMapping("/unread-count")
+    @QueryBudget(1)
+    public Map<String, Long> getUnreadCount(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return Map.of("unread", notificationRepository.countByUserIdAndIsReadFalse(userPrincipal.getId()));
+    }
+
+    @PostMapping("/read")
+    @QueryBudget(1)
+    @Transactional
+    public Map<String, Integer> markAllRead(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return Map.of("updated", notificationRepository.markAllRead(userPrincipal.getId()));
+    }
+}
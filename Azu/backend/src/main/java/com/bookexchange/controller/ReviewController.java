@@ -1,16 +1,23 @@
 package com.bookexchange.controller;
 
+import com.bookexchange.datasource.ReplicaReads;
+import com.bookexchange.dto.FieldSet;
+import com.bookexchange.dto.ReviewView;
 import com.bookexchange.entity.Review;
 import com.bookexchange.entity.User;
 import com.bookexchange.entity.Book;
+import com.bookexchange.exception.BadRequestException;
+import com.bookexchange.metrics.QueryBudget;
 import com.bookexchange.repository.ReviewRepository;
 import com.bookexchange.repository.UserRepository;
 import com.bookexchange.repository.BookRepository;
 import com.bookexchange.security.UserPrincipal;
+import com.bookexchange.service.RatingSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,6 +26,7 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/reviews")
+@ReplicaReads
 public class ReviewController {
     @Autowired
     private ReviewRepository reviewRepository;
@@ -29,17 +37,36 @@ public class ReviewController {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
     @GetMapping("/book/{bookId}")
-    public List<Review> getBookReviews(@PathVariable Long bookId) {
-        return reviewRepository.findByBookIdOrderByCreatedAtDesc(bookId);
+    @QueryBudget(1)
+    public List<?> getBookReviews(@PathVariable Long bookId, @RequestParam(required = false) String fields) {
+        FieldSet selected = reviewFields(fields);
+        if (selected != null) {
+            return reviewRepository.findColumnsByBookId(bookId, selected.getNames());
+        }
+        return reviewRepository.findByBookIdOrderByCreatedAtDesc(bookId).stream()
+                .map(ReviewView::from)
+                .toList();
     }
 
     @GetMapping("/user/{userId}")
-    public List<Review> getUserReviews(@PathVariable Long userId) {
-        return reviewRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @QueryBudget(1)
+    public List<?> getUserReviews(@PathVariable Long userId, @RequestParam(required = false) String fields) {
+        FieldSet selected = reviewFields(fields);
+        if (selected != null) {
+            return reviewRepository.findColumnsByUserId(userId, selected.getNames());
+        }
+        return reviewRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(ReviewView::from)
+                .toList();
     }
 
     @PostMapping
+    @QueryBudget(4)
+    @Transactional
     public ResponseEntity<?> createReview(@Valid @RequestBody Review review, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Optional<User> user = userRepository.findById(userPrincipal.getId());
@@ -52,6 +79,27 @@ public class ReviewController {
         review.setUser(user.get());
         review.setBook(book.get());
         Review savedReview = reviewRepository.save(review);
-        return ResponseEntity.ok(savedReview);
+        ratingSummaryService.recordRating(book.get().getId(), savedReview.getRating());
+        return ResponseEntity.ok(ReviewView.from(savedReview));
+    }
+
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<?> rebuildRatingSummaries(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (userPrincipal.getAuthorities().stream()
+                .noneMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"))) {
+            return ResponseEntity.status(403).body("Access denied");
+        }
+
+        return ResponseEntity.ok(ratingSummaryService.rebuild());
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<?> handleBadRequest(BadRequestException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static FieldSet reviewFields(String fields) {
+        return FieldSet.parse(fields, ReviewView.FIELDS, ReviewView.SUMMARY_FIELDS);
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.dto.SavedSearchView;
+import com.bookexchange.entity.SavedSearch;
+import com.bookexchange.entity.User;
+import com.bookexchange.metrics.QueryBudget;
+import com.bookexchange.repository.SavedSearchRepository;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.search.SavedSearchPercolator;
+import com.bookexchange.security.UserPrincipal;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/saved-searches")
+public class SavedSearchController {
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavedSearchPercolator savedSearchPercolator;
+
+    @Value("${app.saved-searches.max-per-user:20}")
+    private int maxPerUser;
+
+    @GetMapping
+    @QueryBudget(1)
+    public List<SavedSearchView> getSavedSearches(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return savedSearchRepository.findByUserIdOrderByCreatedAtDesc(userPrincipal.getId()).stream()
+                .map(SavedSearchView::from)
+                .toList();
+    }
+
+    @PostMapping
+    @QueryBudget(3)
+    @Transactional
+    public ResponseEntity<?> createSavedSearch(@Valid @RequestBody SavedSearch savedSearch, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (isBlank(savedSearch.getTerms()) && isBlank(savedSearch.getGenre())
+                && savedSearch.getMaxPrice() == null && savedSearch.getCondition() == null) {
+            return ResponseEntity.badRequest().body("A saved search needs terms, a genre, a price ceiling or a condition");
+        }
+
+        // Concurrent creates for one user queue on the user's row, so the count below stays true until commit.
+        Optional<User> user = userRepository.findWithLockById(userPrincipal.getId());
+        if (user.isEmpty()) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        if (savedSearchRepository.countByUserId(userPrincipal.getId()) >= maxPerUser) {
+            return ResponseEntity.badRequest().body("Saved search limit reached");
+        }
+
+        savedSearch.setId(null);
+        savedSearch.setUser(user.get());
+        SavedSearch saved = savedSearchRepository.save(savedSearch);
+        savedSearchPercolator.register(saved);
+        return ResponseEntity.ok(SavedSearchView.from(saved));
+    }
+
+    @DeleteMapping("/{id}")
+    @QueryBudget(1)
+    @Transactional
+    public ResponseEntity<?> deleteSavedSearch(@PathVariable Long id, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (savedSearchRepository.deleteByIdAndUserId(id, userPrincipal.getId()) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        savedSearchPercolator.unregister(id);
+        return ResponseEntity.ok().build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
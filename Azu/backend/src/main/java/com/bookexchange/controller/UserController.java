@@ -0,0 +1,40 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.datasource.ReplicaReads;
+import com.bookexchange.entity.User;
+import com.bookexchange.metrics.QueryBudget;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.UserPrincipal;
+import com.bookexchange.service.UserProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/users")
+@ReplicaReads
+public class UserController {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    // Everything a profile page shows in one round trip; sections listed in "unavailable" missed the deadline.
+    @GetMapping("/{id}/profile")
+    @QueryBudget(7)
+    public ResponseEntity<?> getProfile(@PathVariable Long id, Authentication authentication) {
+        Optional<User> user = userRepository.findById(id);
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean self = authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getId().equals(id);
+        return ResponseEntity.ok(userProfileService.load(user.get(), self));
+    }
+}
@@ -1,18 +1,30 @@
 package com.bookexchange.controller;
 
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.FieldSet;
+import com.bookexchange.dto.WishlistItemView;
 import com.bookexchange.entity.WishlistItem;
 import com.bookexchange.entity.User;
 import com.bookexchange.entity.Book;
+import com.bookexchange.event.WishlistChangedEvent;
+import com.bookexchange.exception.BadRequestException;
+import com.bookexchange.metrics.QueryBudget;
 import com.bookexchange.repository.WishlistItemRepository;
 import com.bookexchange.repository.UserRepository;
 import com.bookexchange.repository.BookRepository;
 import com.bookexchange.security.UserPrincipal;
+import com.bookexchange.service.BookViewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -28,17 +40,37 @@ public class WishlistController {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookViewService bookViewService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping
-    public List<WishlistItem> getWishlist(Authentication authentication) {
+    @QueryBudget(3)
+    public List<?> getWishlist(@RequestParam(required = false) String fields, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return wishlistItemRepository.findByUserIdOrderByAddedAtDesc(userPrincipal.getId());
+        FieldSet selected = FieldSet.parse(fields, BookView.FIELDS, BookView.SUMMARY_FIELDS);
+        if (selected != null) {
+            return getSparseWishlist(userPrincipal.getId(), selected);
+        }
+        List<WishlistItem> items = wishlistItemRepository.findByUserIdOrderByAddedAtDesc(userPrincipal.getId());
+        List<BookView> books = bookViewService.toViews(items.stream().map(WishlistItem::getBook).toList());
+
+        List<WishlistItemView> views = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            views.add(WishlistItemView.from(items.get(i), books.get(i)));
+        }
+        return views;
     }
 
     @PostMapping("/{bookId}")
+    @QueryBudget(5)
+    @Transactional
     public ResponseEntity<?> addToWishlist(@PathVariable Long bookId, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Optional<User> user = userRepository.findById(userPrincipal.getId());
-        Optional<Book> book = bookRepository.findById(bookId);
+        Optional<Book> book = bookRepository.findWithSellerAndImagesById(bookId);
         
         if (user.isEmpty() || book.isEmpty()) {
             return ResponseEntity.badRequest().body("User or Book not found");
@@ -52,13 +84,40 @@ public class WishlistController {
 
         WishlistItem wishlistItem = new WishlistItem(user.get(), book.get());
         WishlistItem savedItem = wishlistItemRepository.save(wishlistItem);
-        return ResponseEntity.ok(savedItem);
+        eventPublisher.publishEvent(new WishlistChangedEvent(WishlistChangedEvent.Type.ADDED, userPrincipal.getId(), bookId));
+        return ResponseEntity.ok(WishlistItemView.from(savedItem, bookViewService.toView(book.get())));
     }
 
     @DeleteMapping("/{bookId}")
+    @QueryBudget(2)
+    @Transactional
     public ResponseEntity<?> removeFromWishlist(@PathVariable Long bookId, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         wishlistItemRepository.deleteByUserIdAndBookId(userPrincipal.getId(), bookId);
+        eventPublisher.publishEvent(new WishlistChangedEvent(WishlistChangedEvent.Type.REMOVED, userPrincipal.getId(), bookId));
         return ResponseEntity.ok().build();
     }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<?> handleBadRequest(BadRequestException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // Same item shape as WishlistItemView; fields selects what each book carries.
+    private List<Map<String, Object>> getSparseWishlist(Long userId, FieldSet fields) {
+        List<Map<String, Object>> rows = wishlistItemRepository.findColumnsByUserId(userId, BookViewService.columnsOf(fields));
+        List<Map<String, Object>> books = bookViewService.toSparseViews(rows, fields);
+
+        List<Map<String, Object>> views = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("id", rows.get(i).get("itemId"));
+            view.put("userId", userId);
+            view.put("bookId", rows.get(i).get("id"));
+            view.put("book", books.get(i));
+            view.put("addedAt", rows.get(i).get("addedAt"));
+            views.add(view);
+        }
+        return views;
+    }
 }
\ No newline at end of file
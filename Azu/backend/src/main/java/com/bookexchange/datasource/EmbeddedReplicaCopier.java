@@ -0,0 +1,96 @@
+package com.bookexchange.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for replication when the primary and replicas are embedded H2
+ * databases (the {@code replicas} profile): every interval, each replica is taken
+ * out of rotation and, once the reads already running on it have finished, reloaded
+ * from a script of the primary. Replicas therefore lag by up to one interval, which
+ * makes routing and read-your-writes observable locally. Not for real databases.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.embedded-copy-interval-ms")
+public class EmbeddedReplicaCopier {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedReplicaCopier.class);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private ReplicaProperties replicaProperties;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    // Ahead of the index rebuilds, which read from the replicas.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void copyOnStartup() throws SQLException, InterruptedException {
+        copy();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.embedded-copy-interval-ms}",
+               initialDelayString = "${app.datasource.embedded-copy-interval-ms}")
+    public synchronized void copy() throws SQLException, InterruptedException {
+        long started = System.currentTimeMillis();
+        List<String> script = new ArrayList<>();
+        try (Connection connection = primaryDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT")) {
+            while (rows.next()) {
+                script.add(rows.getString(1));
+            }
+        }
+
+        List<ReplicaProperties.Replica> replicas = replicaProperties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaProperties.Replica replica = replicas.get(i);
+            String name = "replica-" + (i + 1);
+            readWriteRoutingDataSource.suspend(name);
+            if (!readWriteRoutingDataSource.awaitIdle(name, DRAIN_TIMEOUT)) {
+                // Dropping the schema under a running read would fail it; try again next interval.
+                logger.warn("Reads on {} still running after {}; not reloading it this time", name, DRAIN_TIMEOUT);
+                readWriteRoutingDataSource.resume(name);
+                continue;
+            }
+            try (Connection connection = DriverManager.getConnection(replica.getUrl(),
+                         replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername(),
+                         replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : script) {
+                    statement.execute(sql);
+                }
+            } finally {
+                readWriteRoutingDataSource.resume(name);
+            }
+        }
+        logger.debug("Copied {} statements to {} replicas in {} ms", script.size(), replicas.size(),
+                System.currentTimeMillis() - started);
+    }
+}
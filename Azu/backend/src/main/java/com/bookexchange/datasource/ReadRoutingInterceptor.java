@@ -0,0 +1,65 @@
+package com.bookexchange.datasource;
+
+import com.bookexchange.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Opens the {@link RoutingContext} of each request. With a read-your-writes window,
+ * a user whose write succeeded reads from the primary until the window has passed,
+ * so replica lag never hides their own change from them.
+ */
+public class ReadRoutingInterceptor implements AsyncHandlerInterceptor {
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadRoutingInterceptor(Duration readYourWrites) {
+        this.recentWriters = readYourWrites.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean replicaPreferred = isRead(request) && handler instanceof HandlerMethod method
+                && (method.hasMethodAnnotation(ReplicaReads.class)
+                    || method.getBeanType().isAnnotationPresent(ReplicaReads.class));
+        Long userId = currentUserId();
+        boolean pinned = recentWriters != null && userId != null && recentWriters.getIfPresent(userId) != null;
+        RoutingContext.begin(replicaPreferred, pinned);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RoutingContext.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RoutingContext.end();
+        if (recentWriters == null || isRead(request) || ex != null || response.getStatus() >= 400) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId() : null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.bookexchange.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out primary connections for writes and replica connections for reads.
+ * A connection is for reading when it is taken inside a read-only transaction, or
+ * outside any transaction by a request that prefers replicas (see {@link ReplicaReads}).
+ * Replicas are used round-robin; one that fails a health check or a connection
+ * attempt is skipped until it passes a check again, and with none left reads fall
+ * back to the primary.
+ *
+ * <p>Transactions decide their read-only flag only after asking for a connection,
+ * so this must sit behind a {@code LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final int healthCheckTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      Duration healthCheckTimeout, MeterRegistry registry) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        this.replicaReads = Counter.builder("datasource.reads").tag("target", "replica").register(registry);
+        this.fallbackReads = Counter.builder("datasource.reads").tag("target", "primary").register(registry);
+        registry.gauge("datasource.replicas.available", this.replicas,
+                list -> list.stream().filter(Replica::isAvailable).count());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isRead()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.info("Replica {} is {}", replica.name, healthy ? "back in rotation" : "out of rotation");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Takes a replica out of rotation until {@link #resume} regardless of its health,
+     * e.g. while it is being reloaded.
+     */
+    public void suspend(String name) {
+        replicas.stream().filter(replica -> replica.name.equals(name)).forEach(replica -> replica.suspended = true);
+    }
+
+    public void resume(String name) {
+        replicas.stream().filter(replica -> replica.name.equals(name)).forEach(replica -> replica.suspended = false);
+    }
+
+    /**
+     * Waits for the connections already taken from a suspended replica to be returned.
+     * Returns false if some are still in use after the timeout. Only pooled replicas
+     * report their use; any other replica counts as idle.
+     */
+    public boolean awaitIdle(String name, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Replica replica : replicas) {
+            if (!replica.name.equals(name) || !(replica.dataSource instanceof HikariDataSource pool)) {
+                continue;
+            }
+            HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+            while (stats != null && stats.getActiveConnections() > 0) {
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                Thread.sleep(10);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean isRead() {
+        RoutingContext context = RoutingContext.current();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            if (!readOnly && context != null) {
+                context.pinToPrimary();
+            }
+            return readOnly && (context == null || !context.isPinnedToPrimary());
+        }
+        return context != null && context.isReplicaPreferred() && !context.isPinnedToPrimary();
+    }
+
+    private Connection replicaConnection() {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                logger.warn("Replica {} is out of rotation: {}", replica.name, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return null;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile boolean suspended;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable() {
+            return healthy && !suspended;
+        }
+    }
+}
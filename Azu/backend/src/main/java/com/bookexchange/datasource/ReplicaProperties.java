@@ -0,0 +1,44 @@
+package com.bookexchange.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration readYourWrites = Duration.ZERO;
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private Integer maximumPoolSize;
+
+        // Getters and Setters
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public Integer getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(Integer maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+
+    // Getters and Setters
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+
+    public Duration getReadYourWrites() { return readYourWrites; }
+    public void setReadYourWrites(Duration readYourWrites) { this.readYourWrites = readYourWrites; }
+
+    public Duration getHealthCheckTimeout() { return healthCheckTimeout; }
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) { this.healthCheckTimeout = healthCheckTimeout; }
+}
@@ -0,0 +1,18 @@
+package com.bookexchange.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * GET handlers of the annotated controller (or the annotated method) read from a
+ * replica, including statements issued outside a read-only transaction. Writable
+ * transactions always go to the primary.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaReads {
+}
@@ -0,0 +1,59 @@
+package com.bookexchange.datasource;
+
+/**
+ * How the request on this thread may use replicas. Opened by
+ * {@link ReadRoutingInterceptor}; outside a request only read-only transactions
+ * are sent to a replica.
+ */
+public final class RoutingContext {
+    private static final ThreadLocal<RoutingContext> CURRENT = new ThreadLocal<>();
+
+    private final boolean replicaPreferred;
+    private volatile boolean pinnedToPrimary;
+
+    private RoutingContext(boolean replicaPreferred, boolean pinnedToPrimary) {
+        this.replicaPreferred = replicaPreferred;
+        this.pinnedToPrimary = pinnedToPrimary;
+    }
+
+    static void begin(boolean replicaPreferred, boolean pinnedToPrimary) {
+        CURRENT.set(new RoutingContext(replicaPreferred, pinnedToPrimary));
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RoutingContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps a task the current request hands to another thread so its reads are
+     * routed as the request's own would be.
+     */
+    public static Runnable propagate(Runnable task) {
+        RoutingContext context = CURRENT.get();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            RoutingContext previous = CURRENT.get();
+            CURRENT.set(context);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    boolean isReplicaPreferred() { return replicaPreferred; }
+
+    boolean isPinnedToPrimary() { return pinnedToPrimary; }
+
+    // Once a request has opened a writable transaction it reads its own writes.
+    void pinToPrimary() {
+        pinnedToPrimary = true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position over (created_at DESC, id DESC). Clients only ever
+ * echo back the token handed out in {@link CursorPage#getNextCursor()}. The
+ * catalog export uses the same token, ascending, as its incremental watermark.
+ */
+public class BookCursor {
+    // Upper bound of a MySQL DATETIME, so the first page needs no special-cased query.
+    public static final BookCursor FIRST = new BookCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    // Lower bound of a MySQL DATETIME: an export from here covers the whole catalog.
+    public static final BookCursor ORIGIN = new BookCursor(LocalDateTime.of(1000, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public BookCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static BookCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new BookCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isAfter(BookCursor other) {
+        int byTime = createdAt.compareTo(other.createdAt);
+        return byTime > 0 || (byTime == 0 && id > other.id);
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getId() { return id; }
+}
@@ -0,0 +1,62 @@
+package com.bookexchange.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookImportReport {
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<RowError> errors = new ArrayList<>();
+
+    public BookImportReport() {}
+
+    public void addError(long row, String message, int maxErrors) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void finish(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+        this.rowsPerSecond = elapsedMs == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMs;
+    }
+
+    // Getters and Setters
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public void setRow(long row) { this.row = row; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
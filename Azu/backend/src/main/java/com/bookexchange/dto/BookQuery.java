@@ -0,0 +1,72 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.Book;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional filters for {@code GET /books/query}, bound straight from the request
+ * parameters. Unset fields do not constrain the result.
+ */
+public class BookQuery {
+    private String genre;
+    private Book.BookCondition condition;
+    private String language;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minYear;
+    private Integer maxYear;
+    private Boolean forSale;
+    private Boolean forExchange;
+    private Long sellerId;
+    private String sort = "newest";
+    private Integer page = 0;
+    private Integer limit;
+
+    // Identifies the filter set (not the page) for caching.
+    public String cacheKey() {
+        return String.join("|", String.valueOf(genre), String.valueOf(condition), String.valueOf(language),
+                String.valueOf(minPrice), String.valueOf(maxPrice), String.valueOf(minYear), String.valueOf(maxYear),
+                String.valueOf(forSale), String.valueOf(forExchange), String.valueOf(sellerId), sort);
+    }
+
+    // Getters and Setters
+    public String getGenre() { return genre; }
+    public void setGenre(String genre) { this.genre = genre; }
+
+    public Book.BookCondition getCondition() { return condition; }
+    public void setCondition(Book.BookCondition condition) { this.condition = condition; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Integer getMinYear() { return minYear; }
+    public void setMinYear(Integer minYear) { this.minYear = minYear; }
+
+    public Integer getMaxYear() { return maxYear; }
+    public void setMaxYear(Integer maxYear) { this.maxYear = maxYear; }
+
+    public Boolean getForSale() { return forSale; }
+    public void setForSale(Boolean forSale) { this.forSale = forSale; }
+
+    public Boolean getForExchange() { return forExchange; }
+    public void setForExchange(Boolean forExchange) { this.forExchange = forExchange; }
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
@@ -0,0 +1,142 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.image.ImageVariant;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class BookView {
+    // Column names match what POST /books/import reads back.
+    public static final List<String> CSV_HEADER = List.of("id", "title", "author", "isbn", "genre", "condition",
+            "price", "description", "images", "sellerId", "sellerName", "isAvailable", "publishedYear", "language",
+            "pageCount", "createdAt", "forSale", "forExchange", "ratingCount", "ratingAverage");
+    // Names accepted by fields= on list endpoints; image is the first image alone.
+    public static final List<String> FIELDS = List.of("id", "title", "author", "isbn", "genre", "condition",
+            "price", "description", "images", "image", "thumbnails", "sellerId", "sellerName", "isAvailable",
+            "publishedYear", "language", "pageCount", "createdAt", "forSale", "forExchange", "rating");
+    // What a catalog card shows.
+    public static final List<String> SUMMARY_FIELDS = List.of("id", "title", "author", "condition", "price",
+            "image", "sellerName");
+
+    private Long id;
+    private String title;
+    private String author;
+    private String isbn;
+    private String genre;
+    private Book.BookCondition condition;
+    private BigDecimal price;
+    private String description;
+    private List<String> images;
+    // Thumbnails of the first image by size, when it was uploaded to this API.
+    private Map<String, String> thumbnails;
+    private Long sellerId;
+    private String sellerName;
+    private Boolean isAvailable;
+    private Integer publishedYear;
+    private String language;
+    private Integer pageCount;
+    private LocalDateTime createdAt;
+    private Boolean forSale;
+    private Boolean forExchange;
+    private RatingSummaryView rating;
+
+    public BookView() {}
+
+    // The seller must already be initialized; images and rating are passed in because they are loaded in bulk.
+    public static BookView from(Book book, List<String> images, RatingSummaryView rating) {
+        BookView view = new BookView();
+        view.id = book.getId();
+        view.title = book.getTitle();
+        view.author = book.getAuthor();
+        view.isbn = book.getIsbn();
+        view.genre = book.getGenre();
+        view.condition = book.getCondition();
+        view.price = book.getPrice();
+        view.description = book.getDescription();
+        view.images = images;
+        view.thumbnails = images == null || images.isEmpty() ? null : ImageVariant.thumbnailsOf(images.get(0));
+        view.sellerId = book.getSeller().getId();
+        view.sellerName = book.getSeller().getUsername();
+        view.isAvailable = book.getIsAvailable();
+        view.publishedYear = book.getPublishedYear();
+        view.language = book.getLanguage();
+        view.pageCount = book.getPageCount();
+        view.createdAt = book.getCreatedAt();
+        view.forSale = book.getForSale();
+        view.forExchange = book.getForExchange();
+        view.rating = rating;
+        return view;
+    }
+
+    public List<?> toCsvRecord() {
+        return Arrays.asList(id, title, author, isbn, genre, condition, price, description,
+                images == null ? null : String.join("|", images), sellerId, sellerName, isAvailable,
+                publishedYear, language, pageCount, createdAt, forSale, forExchange,
+                rating == null ? null : rating.getCount(), rating == null ? null : rating.getAverage());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+
+    public String getIsbn() { return isbn; }
+    public void setIsbn(String isbn) { this.isbn = isbn; }
+
+    public String getGenre() { return genre; }
+    public void setGenre(String genre) { this.genre = genre; }
+
+    public Book.BookCondition getCondition() { return condition; }
+    public void setCondition(Book.BookCondition condition) { this.condition = condition; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public List<String> getImages() { return images; }
+    public void setImages(List<String> images) { this.images = images; }
+
+    public Map<String, String> getThumbnails() { return thumbnails; }
+    public void setThumbnails(Map<String, String> thumbnails) { this.thumbnails = thumbnails; }
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+
+    public String getSellerName() { return sellerName; }
+    public void setSellerName(String sellerName) { this.sellerName = sellerName; }
+
+    public Boolean getIsAvailable() { return isAvailable; }
+    public void setIsAvailable(Boolean isAvailable) { this.isAvailable = isAvailable; }
+
+    public Integer getPublishedYear() { return publishedYear; }
+    public void setPublishedYear(Integer publishedYear) { this.publishedYear = publishedYear; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public Integer getPageCount() { return pageCount; }
+    public void setPageCount(Integer pageCount) { this.pageCount = pageCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Boolean getForSale() { return forSale; }
+    public void setForSale(Boolean forSale) { this.forSale = forSale; }
+
+    public Boolean getForExchange() { return forExchange; }
+    public void setForExchange(Boolean forExchange) { this.forExchange = forExchange; }
+
+    public RatingSummaryView getRating() { return rating; }
+    public void setRating(RatingSummaryView rating) { this.rating = rating; }
+}
@@ -0,0 +1,25 @@
+package com.bookexchange.dto;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasMore;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+}
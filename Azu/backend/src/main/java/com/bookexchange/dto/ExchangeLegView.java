@@ -0,0 +1,33 @@
+package com.bookexchange.dto;
+
+public class ExchangeLegView {
+    private Long giverId;
+    private String giverName;
+    private Long receiverId;
+    private String receiverName;
+    private BookView book;
+
+    public ExchangeLegView(Long giverId, String giverName, Long receiverId, String receiverName, BookView book) {
+        this.giverId = giverId;
+        this.giverName = giverName;
+        this.receiverId = receiverId;
+        this.receiverName = receiverName;
+        this.book = book;
+    }
+
+    // Getters and Setters
+    public Long getGiverId() { return giverId; }
+    public void setGiverId(Long giverId) { this.giverId = giverId; }
+
+    public String getGiverName() { return giverName; }
+    public void setGiverName(String giverName) { this.giverName = giverName; }
+
+    public Long getReceiverId() { return receiverId; }
+    public void setReceiverId(Long receiverId) { this.receiverId = receiverId; }
+
+    public String getReceiverName() { return receiverName; }
+    public void setReceiverName(String receiverName) { this.receiverName = receiverName; }
+
+    public BookView getBook() { return book; }
+    public void setBook(BookView book) { this.book = book; }
+}
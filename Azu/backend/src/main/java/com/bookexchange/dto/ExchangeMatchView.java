@@ -0,0 +1,20 @@
+package com.bookexchange.dto;
+
+import java.util.List;
+
+public class ExchangeMatchView {
+    private Integer parties;
+    private List<ExchangeLegView> legs;
+
+    public ExchangeMatchView(List<ExchangeLegView> legs) {
+        this.parties = legs.size();
+        this.legs = legs;
+    }
+
+    // Getters and Setters
+    public Integer getParties() { return parties; }
+    public void setParties(Integer parties) { this.parties = parties; }
+
+    public List<ExchangeLegView> getLegs() { return legs; }
+    public void setLegs(List<ExchangeLegView> legs) { this.legs = legs; }
+}
@@ -0,0 +1,76 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.ExchangeRequest;
+
+import java.time.LocalDateTime;
+
+public class ExchangeRequestView {
+    private Long id;
+    private Long requesterId;
+    private String requesterName;
+    private Long ownerId;
+    private String ownerName;
+    private Long requestedBookId;
+    private String requestedBookTitle;
+    private Long offeredBookId;
+    private String offeredBookTitle;
+    private ExchangeRequest.ExchangeStatus status;
+    private String message;
+    private LocalDateTime createdAt;
+
+    public ExchangeRequestView() {}
+
+    public static ExchangeRequestView from(ExchangeRequest request) {
+        ExchangeRequestView view = new ExchangeRequestView();
+        view.id = request.getId();
+        view.requesterId = request.getRequester().getId();
+        view.requesterName = request.getRequester().getUsername();
+        view.ownerId = request.getOwner().getId();
+        view.ownerName = request.getOwner().getUsername();
+        view.requestedBookId = request.getRequestedBook().getId();
+        view.requestedBookTitle = request.getRequestedBook().getTitle();
+        view.offeredBookId = request.getOfferedBook().getId();
+        view.offeredBookTitle = request.getOfferedBook().getTitle();
+        view.status = request.getStatus();
+        view.message = request.getMessage();
+        view.createdAt = request.getCreatedAt();
+        return view;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRequesterId() { return requesterId; }
+    public void setRequesterId(Long requesterId) { this.requesterId = requesterId; }
+
+    public String getRequesterName() { return requesterName; }
+    public void setRequesterName(String requesterName) { this.requesterName = requesterName; }
+
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+
+    public String getOwnerName() { return ownerName; }
+    public void setOwnerName(String ownerName) { this.ownerName = ownerName; }
+
+    public Long getRequestedBookId() { return requestedBookId; }
+    public void setRequestedBookId(Long requestedBookId) { this.requestedBookId = requestedBookId; }
+
+    public String getRequestedBookTitle() { return requestedBookTitle; }
+    public void setRequestedBookTitle(String requestedBookTitle) { this.requestedBookTitle = requestedBookTitle; }
+
+    public Long getOfferedBookId() { return offeredBookId; }
+    public void setOfferedBookId(Long offeredBookId) { this.offeredBookId = offeredBookId; }
+
+    public String getOfferedBookTitle() { return offeredBookTitle; }
+    public void setOfferedBookTitle(String offeredBookTitle) { this.offeredBookTitle = offeredBookTitle; }
+
+    public ExchangeRequest.ExchangeStatus getStatus() { return status; }
+    public void setStatus(ExchangeRequest.ExchangeStatus status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
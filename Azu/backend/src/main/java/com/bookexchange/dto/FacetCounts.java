@@ -0,0 +1,20 @@
+package com.bookexchange.dto;
+
+import java.util.Map;
+
+public class FacetCounts {
+    private Long total;
+    private Map<String, Map<String, Long>> facets;
+
+    public FacetCounts(Long total, Map<String, Map<String, Long>> facets) {
+        this.total = total;
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+}
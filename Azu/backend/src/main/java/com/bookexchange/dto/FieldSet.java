@@ -0,0 +1,55 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.exception.BadRequestException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fields a client asked for with {@code fields=}: a comma-separated list of field
+ * names, where {@code summary} stands for the resource's summary fields. Names are
+ * kept in the order the resource declares them, so equal selections have equal keys.
+ */
+public final class FieldSet {
+    public static final String SUMMARY = "summary";
+
+    private final List<String> names;
+
+    private FieldSet(List<String> names) {
+        this.names = names;
+    }
+
+    // Null when no fields were asked for, meaning the full representation.
+    public static FieldSet parse(String param, List<String> fields, List<String> summary) {
+        if (param == null || param.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new HashSet<>();
+        for (String token : param.split(",")) {
+            String name = token.trim();
+            if (name.equals(SUMMARY)) {
+                requested.addAll(summary);
+            } else if (fields.contains(name)) {
+                requested.add(name);
+            } else if (!name.isEmpty()) {
+                throw new BadRequestException("Unknown field '" + name + "'; fields are "
+                        + SUMMARY + ", " + String.join(", ", fields));
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new BadRequestException("fields must name at least one field");
+        }
+        return new FieldSet(fields.stream().filter(requested::contains).toList());
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    public List<String> getNames() { return names; }
+
+    public String key() {
+        return String.join(",", names);
+    }
+}
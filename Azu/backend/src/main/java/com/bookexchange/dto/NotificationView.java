@@ -0,0 +1,46 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.Notification;
+
+import java.time.LocalDateTime;
+
+public class NotificationView {
+    private Long id;
+    private Long savedSearchId;
+    private Long bookId;
+    private String bookTitle;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+
+    public NotificationView() {}
+
+    public static NotificationView from(Notification notification) {
+        NotificationView view = new NotificationView();
+        view.id = notification.getId();
+        view.savedSearchId = notification.getSavedSearchId();
+        view.bookId = notification.getBookId();
+        view.bookTitle = notification.getBookTitle();
+        view.isRead = notification.getIsRead();
+        view.createdAt = notification.getCreatedAt();
+        return view;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getSavedSearchId() { return savedSearchId; }
+    public void setSavedSearchId(Long savedSearchId) { this.savedSearchId = savedSearchId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public String getBookTitle() { return bookTitle; }
+    public void setBookTitle(String bookTitle) { this.bookTitle = bookTitle; }
+
+    public Boolean getIsRead() { return isRead; }
+    public void setIsRead(Boolean isRead) { this.isRead = isRead; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
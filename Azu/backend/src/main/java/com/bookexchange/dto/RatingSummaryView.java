@@ -0,0 +1,38 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.BookRatingSummary;
+
+public class RatingSummaryView {
+    private Long count;
+    private Double average;
+    private long[] histogram;
+
+    public RatingSummaryView() {}
+
+    public RatingSummaryView(Long count, Double average, long[] histogram) {
+        this.count = count;
+        this.average = average;
+        this.histogram = histogram;
+    }
+
+    public static RatingSummaryView from(BookRatingSummary summary) {
+        if (summary == null || summary.getRatingCount() == 0) {
+            return new RatingSummaryView(0L, null, new long[5]);
+        }
+        double average = Math.round(100.0 * summary.getRatingSum() / summary.getRatingCount()) / 100.0;
+        return new RatingSummaryView(summary.getRatingCount(), average, new long[] {
+                summary.getRating1(), summary.getRating2(), summary.getRating3(),
+                summary.getRating4(), summary.getRating5()
+        });
+    }
+
+    // Getters and Setters
+    public Long getCount() { return count; }
+    public void setCount(Long count) { this.count = count; }
+
+    public Double getAverage() { return average; }
+    public void setAverage(Double average) { this.average = average; }
+
+    public long[] getHistogram() { return histogram; }
+    public void setHistogram(long[] histogram) { this.histogram = histogram; }
+}
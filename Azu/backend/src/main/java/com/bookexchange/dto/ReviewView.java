@@ -0,0 +1,58 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.Review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReviewView {
+    // Names accepted by fields= on list endpoints.
+    public static final List<String> FIELDS = List.of("id", "userId", "userName", "bookId", "rating", "comment",
+            "createdAt");
+    public static final List<String> SUMMARY_FIELDS = List.of("id", "userName", "rating", "createdAt");
+
+    private Long id;
+    private Long userId;
+    private String userName;
+    private Long bookId;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+
+    public ReviewView() {}
+
+    // Only the review's user needs to be initialized; the book id is read from the proxy.
+    public static ReviewView from(Review review) {
+        ReviewView view = new ReviewView();
+        view.id = review.getId();
+        view.userId = review.getUser().getId();
+        view.userName = review.getUser().getUsername();
+        view.bookId = review.getBook().getId();
+        view.rating = review.getRating();
+        view.comment = review.getComment();
+        view.createdAt = review.getCreatedAt();
+        return view;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
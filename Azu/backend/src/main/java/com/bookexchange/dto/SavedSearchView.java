@@ -0,0 +1,48 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.SavedSearch;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class SavedSearchView {
+    private Long id;
+    private String terms;
+    private String genre;
+    private BigDecimal maxPrice;
+    private Book.BookCondition condition;
+    private LocalDateTime createdAt;
+
+    public SavedSearchView() {}
+
+    public static SavedSearchView from(SavedSearch search) {
+        SavedSearchView view = new SavedSearchView();
+        view.id = search.getId();
+        view.terms = search.getTerms();
+        view.genre = search.getGenre();
+        view.maxPrice = search.getMaxPrice();
+        view.condition = search.getCondition();
+        view.createdAt = search.getCreatedAt();
+        return view;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTerms() { return terms; }
+    public void setTerms(String terms) { this.terms = terms; }
+
+    public String getGenre() { return genre; }
+    public void setGenre(String genre) { this.genre = genre; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Book.BookCondition getCondition() { return condition; }
+    public void setCondition(Book.BookCondition condition) { this.condition = condition; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
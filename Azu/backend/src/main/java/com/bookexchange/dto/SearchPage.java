@@ -0,0 +1,30 @@
+package com.bookexchange.dto;
+
+import java.util.List;
+
+public class SearchPage<T> {
+    private List<T> items;
+    private Integer page;
+    private Integer size;
+    private Long total;
+
+    public SearchPage(List<T> items, Integer page, Integer size, Long total) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+}
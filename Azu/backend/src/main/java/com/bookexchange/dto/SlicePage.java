@@ -0,0 +1,30 @@
+package com.bookexchange.dto;
+
+import java.util.List;
+
+public class SlicePage<T> {
+    private List<T> items;
+    private Integer page;
+    private Integer size;
+    private Boolean hasMore;
+
+    public SlicePage(List<T> items, Integer page, Integer size, Boolean hasMore) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+}
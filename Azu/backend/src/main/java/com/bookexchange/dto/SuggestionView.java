@@ -0,0 +1,23 @@
+package com.bookexchange.dto;
+
+public class SuggestionView {
+    private String text;
+    private String type;
+    private Integer count;
+
+    public SuggestionView(String text, String type, Integer count) {
+        this.text = text;
+        this.type = type;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+}
@@ -0,0 +1,59 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserProfileView {
+    private Long id;
+    private String username;
+    private String avatar;
+    private LocalDateTime joinedDate;
+    private RatingSummaryView rating;
+    private List<BookView> listings;
+    private List<ReviewView> reviews;
+    private List<ExchangeRequestView> exchanges;
+    // Sections that could not be loaded in time; they are left null.
+    private List<String> unavailable = new ArrayList<>();
+
+    public UserProfileView() {}
+
+    public static UserProfileView from(User user) {
+        UserProfileView view = new UserProfileView();
+        view.id = user.getId();
+        view.username = user.getUsername();
+        view.avatar = user.getAvatar();
+        view.joinedDate = user.getJoinedDate();
+        return view;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getAvatar() { return avatar; }
+    public void setAvatar(String avatar) { this.avatar = avatar; }
+
+    public LocalDateTime getJoinedDate() { return joinedDate; }
+    public void setJoinedDate(LocalDateTime joinedDate) { this.joinedDate = joinedDate; }
+
+    public RatingSummaryView getRating() { return rating; }
+    public void setRating(RatingSummaryView rating) { this.rating = rating; }
+
+    public List<BookView> getListings() { return listings; }
+    public void setListings(List<BookView> listings) { this.listings = listings; }
+
+    public List<ReviewView> getReviews() { return reviews; }
+    public void setReviews(List<ReviewView> reviews) { this.reviews = reviews; }
+
+    public List<ExchangeRequestView> getExchanges() { return exchanges; }
+    public void setExchanges(List<ExchangeRequestView> exchanges) { this.exchanges = exchanges; }
+
+    public List<String> getUnavailable() { return unavailable; }
+    public void setUnavailable(List<String> unavailable) { this.unavailable = unavailable; }
+}
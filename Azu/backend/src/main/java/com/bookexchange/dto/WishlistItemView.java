@@ -0,0 +1,41 @@
+package com.bookexchange.dto;
+
+import com.bookexchange.entity.WishlistItem;
+
+import java.time.LocalDateTime;
+
+public class WishlistItemView {
+    private Long id;
+    private Long userId;
+    private Long bookId;
+    private BookView book;
+    private LocalDateTime addedAt;
+
+    public WishlistItemView() {}
+
+    public static WishlistItemView from(WishlistItem item, BookView book) {
+        WishlistItemView view = new WishlistItemView();
+        view.id = item.getId();
+        view.userId = item.getUser().getId();
+        view.bookId = book.getId();
+        view.book = book;
+        view.addedAt = item.getAddedAt();
+        return view;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public BookView getBook() { return book; }
+    public void setBook(BookView book) { this.book = book; }
+
+    public LocalDateTime getAddedAt() { return addedAt; }
+    public void setAddedAt(LocalDateTime addedAt) { this.addedAt = addedAt; }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -11,10 +13,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_created", columnList = "created_at, id"),
+        @Index(name = "idx_books_available_created", columnList = "is_available, created_at, id"),
+        @Index(name = "idx_books_genre_created", columnList = "genre, is_available, created_at, id"),
+        @Index(name = "idx_books_sale_created", columnList = "for_sale, is_available, created_at, id"),
+        @Index(name = "idx_books_exchange_created", columnList = "for_exchange, is_available, created_at, id"),
+        @Index(name = "idx_books_available_price", columnList = "is_available, price, id"),
+        @Index(name = "idx_books_genre_price", columnList = "genre, is_available, price, id"),
+        @Index(name = "idx_books_seller_created", columnList = "seller_id, is_available, created_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 public class Book {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table ids (unlike IDENTITY) let Hibernate batch inserts; see BookIdGeneratorInitializer.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "book_ids")
+    @TableGenerator(name = "book_ids", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "books", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank
@@ -39,6 +57,7 @@ public class Book {
     private String description;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-images")
     @CollectionTable(name = "book_images", joinColumns = @JoinColumn(name = "book_id"))
     @Column(name = "image_url")
     private List<String> images;
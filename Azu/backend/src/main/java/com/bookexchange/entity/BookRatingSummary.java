@@ -0,0 +1,60 @@
+package com.bookexchange.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "book_rating_summaries")
+public class BookRatingSummary {
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "rating_count")
+    private Long ratingCount = 0L;
+
+    @Column(name = "rating_sum")
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_1")
+    private Long rating1 = 0L;
+
+    @Column(name = "rating_2")
+    private Long rating2 = 0L;
+
+    @Column(name = "rating_3")
+    private Long rating3 = 0L;
+
+    @Column(name = "rating_4")
+    private Long rating4 = 0L;
+
+    @Column(name = "rating_5")
+    private Long rating5 = 0L;
+
+    // Constructors
+    public BookRatingSummary() {}
+
+    // Getters and Setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Long getRatingCount() { return ratingCount; }
+    public void setRatingCount(Long ratingCount) { this.ratingCount = ratingCount; }
+
+    public Long getRatingSum() { return ratingSum; }
+    public void setRatingSum(Long ratingSum) { this.ratingSum = ratingSum; }
+
+    public Long getRating1() { return rating1; }
+    public void setRating1(Long rating1) { this.rating1 = rating1; }
+
+    public Long getRating2() { return rating2; }
+    public void setRating2(Long rating2) { this.rating2 = rating2; }
+
+    public Long getRating3() { return rating3; }
+    public void setRating3(Long rating3) { this.rating3 = rating3; }
+
+    public Long getRating4() { return rating4; }
+    public void setRating4(Long rating4) { this.rating4 = rating4; }
+
+    public Long getRating5() { return rating5; }
+    public void setRating5(Long rating5) { this.rating5 = rating5; }
+}
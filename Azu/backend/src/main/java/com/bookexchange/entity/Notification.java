@@ -0,0 +1,66 @@
+package com.bookexchange.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An inbox entry for a listing that matched one of the user's saved searches.
+ * Rows are written in batches by NotificationWriter; the search and book are
+ * kept as plain ids, with the title copied, so entries outlive both.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user", columnList = "user_id, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notifications_search_book", columnNames = {"saved_search_id", "book_id"})
+})
+public class Notification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(name = "saved_search_id")
+    private Long savedSearchId;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "book_title")
+    private String bookTitle;
+
+    @Column(name = "is_read")
+    private Boolean isRead = false;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public Notification() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Long getSavedSearchId() { return savedSearchId; }
+    public void setSavedSearchId(Long savedSearchId) { this.savedSearchId = savedSearchId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public String getBookTitle() { return bookTitle; }
+    public void setBookTitle(String bookTitle) { this.bookTitle = bookTitle; }
+
+    public Boolean getIsRead() { return isRead; }
+    public void setIsRead(Boolean isRead) { this.isRead = isRead; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
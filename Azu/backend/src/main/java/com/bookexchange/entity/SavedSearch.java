@@ -0,0 +1,63 @@
+package com.bookexchange.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "saved_searches", indexes = {
+        @Index(name = "idx_saved_searches_user", columnList = "user_id, created_at")
+})
+public class SavedSearch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    private String terms;
+
+    private String genre;
+
+    @Positive
+    @Column(name = "max_price")
+    private BigDecimal maxPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "book_condition")
+    private Book.BookCondition condition;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SavedSearch() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public String getTerms() { return terms; }
+    public void setTerms(String terms) { this.terms = terms; }
+
+    public String getGenre() { return genre; }
+    public void setGenre(String genre) { this.genre = genre; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Book.BookCondition getCondition() { return condition; }
+    public void setCondition(Book.BookCondition condition) { this.condition = condition; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,49 @@
+package com.bookexchange.event;
+
+import com.bookexchange.entity.Book;
+
+/**
+ * Published by BookController inside the write transaction. Listeners that keep
+ * derived state (caches, in-memory indexes) subscribe with
+ * {@code @TransactionalEventListener} so they only react once the change commits.
+ */
+public class BookChangedEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Book book;
+    private final String previousGenre;
+    private final Boolean previousAvailable;
+
+    public BookChangedEvent(Type type, Book book, String previousGenre) {
+        this(type, book, previousGenre, null);
+    }
+
+    public BookChangedEvent(Type type, Book book, String previousGenre, Boolean previousAvailable) {
+        this.type = type;
+        this.book = book;
+        this.previousGenre = previousGenre;
+        this.previousAvailable = previousAvailable;
+    }
+
+    public Type getType() { return type; }
+
+    // State after the change; for DELETED, the state that was removed.
+    public Book getBook() { return book; }
+
+    public Long getBookId() { return book.getId(); }
+
+    // Genre before an update, so listings the book moved out of can be invalidated too.
+    public String getPreviousGenre() { return previousGenre; }
+
+    // Availability before an update; null for creates and deletes.
+    public Boolean getPreviousAvailable() { return previousAvailable; }
+
+    // An available listing was withdrawn, either by an update or by deleting it.
+    public boolean isWithdrawn() {
+        return type == Type.DELETED ? Boolean.TRUE.equals(book.getIsAvailable())
+                : type == Type.UPDATED && Boolean.TRUE.equals(previousAvailable) && !Boolean.TRUE.equals(book.getIsAvailable());
+    }
+}
@@ -0,0 +1,25 @@
+package com.bookexchange.event;
+
+import com.bookexchange.dto.ExchangeRequestView;
+
+/**
+ * Published by ExchangeController inside the write transaction when a request is
+ * created or its status changes.
+ */
+public class ExchangeRequestChangedEvent {
+    public enum Type {
+        CREATED, STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final ExchangeRequestView request;
+
+    public ExchangeRequestChangedEvent(Type type, ExchangeRequestView request) {
+        this.type = type;
+        this.request = request;
+    }
+
+    public Type getType() { return type; }
+
+    public ExchangeRequestView getRequest() { return request; }
+}
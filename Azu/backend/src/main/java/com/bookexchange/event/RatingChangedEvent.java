@@ -0,0 +1,15 @@
+package com.bookexchange.event;
+
+/**
+ * Published by RatingSummaryService when a book's rating summary changes, inside the
+ * write transaction. A null book id means every summary was rebuilt.
+ */
+public class RatingChangedEvent {
+    private final Long bookId;
+
+    public RatingChangedEvent(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Long getBookId() { return bookId; }
+}
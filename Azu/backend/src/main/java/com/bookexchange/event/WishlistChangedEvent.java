@@ -0,0 +1,27 @@
+package com.bookexchange.event;
+
+/**
+ * Published by WishlistController inside the write transaction, for listeners
+ * that track who wants which book.
+ */
+public class WishlistChangedEvent {
+    public enum Type {
+        ADDED, REMOVED
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final Long bookId;
+
+    public WishlistChangedEvent(Type type, Long userId, Long bookId) {
+        this.type = type;
+        this.userId = userId;
+        this.bookId = bookId;
+    }
+
+    public Type getType() { return type; }
+
+    public Long getUserId() { return userId; }
+
+    public Long getBookId() { return bookId; }
+}
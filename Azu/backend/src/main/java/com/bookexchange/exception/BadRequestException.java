@@ -0,0 +1,12 @@
+package com.bookexchange.exception;
+
+/**
+ * A request the client has to change before it can succeed: a bad cursor, field list,
+ * page or upload. Controllers answer it with a 400 and its message, which is written
+ * for the client; any other exception is a server error and its message is not shown.
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,126 @@
+package com.bookexchange.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a file to the response without copying it through the heap. Under Tomcat
+ * the file is handed to the connector's sendfile, which streams it from the page
+ * cache to the socket after the handler returns; elsewhere it is written with
+ * {@link FileChannel#transferTo}. Handles {@code If-None-Match}, a single-range
+ * {@code Range} (with {@code If-Range}) and {@code HEAD}.
+ */
+public final class FileSender {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileSender() {}
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                            String contentType, String etag, String cacheControl) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.equals(etag))) {
+                long[] bounds = parseRange(range, length);
+                if (bounds == null) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                if (bounds.length == 2) {
+                    start = bounds[0];
+                    end = bounds[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+                }
+            }
+
+            response.setContentType(contentType);
+            response.setContentLengthLong(end - start);
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The [start, end) of a single byte range; an empty array to send the whole file
+     * (multiple ranges or a header this does not understand); null when unsatisfiable.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix <= 0 || length == 0 ? null : new long[] {Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length : Math.min(length, Long.parseLong(last) + 1);
+            if (start >= length || end <= start) {
+                return start >= length ? null : new long[0];
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
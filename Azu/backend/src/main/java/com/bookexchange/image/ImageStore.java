@@ -0,0 +1,205 @@
+package com.bookexchange.image;
+
+import com.bookexchange.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image files: an upload is stored once under the SHA-256 of its
+ * bytes, so a file never changes once written and the same photo uploaded twice is
+ * kept once. Originals are named {@code <hash>.<ext>} and live under
+ * {@code originals/}; each {@link ImageVariant} has a directory of its own. Files are
+ * written to a temporary name and moved into place, so readers never see a partial
+ * file. Uploads are staged first and only moved into place once the book that refers
+ * to them has been saved (see {@link StagedImageListener}).
+ */
+@Component
+public class ImageStore {
+    static final String HASH = "[0-9a-f]{64}";
+    private static final Pattern ORIGINAL_NAME = Pattern.compile(HASH + "\\.(jpg|png|gif)");
+    private static final Pattern VARIANT_NAME = Pattern.compile(HASH + "\\.jpg");
+
+    private final Path root;
+    private final long maxBytes;
+    private final long maxPixels;
+
+    public ImageStore(@Value("${app.images.dir:data/images}") String dir,
+                      @Value("${app.images.max-bytes:10485760}") long maxBytes,
+                      @Value("${app.images.max-pixels:40000000}") long maxPixels) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /**
+     * Checks a JPEG, PNG or GIF upload and keeps it in a temporary file until it is
+     * {@link #publish published} or {@link #discard discarded}. Rejects anything else,
+     * anything over the size limits, and files the image decoders cannot read.
+     */
+    public StagedImage stage(InputStream upload) throws IOException {
+        Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", null);
+        boolean staged = false;
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(upload, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = copy(in, out);
+            }
+            if (size > maxBytes) {
+                throw new BadRequestException("Image exceeds " + maxBytes + " bytes");
+            }
+            String extension = sniff(temp);
+            checkDimensions(temp);
+
+            staged = true;
+            return new StagedImage(HexFormat.of().formatHex(digest.digest()) + "." + extension, temp);
+        } finally {
+            if (!staged) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // The original may already be there: the same photo uploaded before, by anyone.
+    public void publish(StagedImage image) throws IOException {
+        try {
+            Path target = original(image.name());
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(image.file(), target);
+            }
+        } finally {
+            Files.deleteIfExists(image.file());
+        }
+    }
+
+    public void discard(StagedImage image) throws IOException {
+        Files.deleteIfExists(image.file());
+    }
+
+    // Callers validate the name first with isOriginalName.
+    public Path original(String name) {
+        return root.resolve("originals").resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    public Path variant(ImageVariant variant, String name) {
+        return root.resolve(variant.pathName()).resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    public Path tempFile(String prefix) throws IOException {
+        return Files.createTempFile(root.resolve("tmp"), prefix, null);
+    }
+
+    public static boolean isOriginalName(String name) {
+        return ORIGINAL_NAME.matcher(name).matches();
+    }
+
+    public static boolean isVariantName(String name) {
+        return VARIANT_NAME.matcher(name).matches();
+    }
+
+    public static String hashOf(String name) {
+        return name.substring(0, name.indexOf('.'));
+    }
+
+    public static String contentType(String name) {
+        return switch (name.substring(name.lastIndexOf('.') + 1)) {
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            default -> "image/jpeg";
+        };
+    }
+
+    static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Stops counting past the limit instead of filling the disk with an oversized upload.
+    private long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            size += read;
+            if (size > maxBytes) {
+                return size;
+            }
+            out.write(buffer, 0, read);
+        }
+        return size;
+    }
+
+    private static String sniff(Path file) throws IOException {
+        byte[] head = new byte[8];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (read == 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == '\r' && head[5] == '\n' && head[6] == 0x1A && head[7] == '\n') {
+            return "png";
+        }
+        if (read >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8'
+                && (head[4] == '7' || head[4] == '9') && head[5] == 'a') {
+            return "gif";
+        }
+        throw new BadRequestException("Only JPEG, PNG and GIF images are accepted");
+    }
+
+    // Reads the header only, so a small file declaring huge dimensions is refused before anything decodes it.
+    private void checkDimensions(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new BadRequestException("Unreadable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new BadRequestException("Image exceeds " + maxPixels + " pixels");
+                }
+            } catch (IOException e) {
+                throw new BadRequestException("Unreadable image");
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bookexchange.image;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The fixed thumbnail widths the catalog cards need, at twice their CSS size for
+ * high-density screens. Thumbnails are always JPEG.
+ */
+public enum ImageVariant {
+    SMALL(192),
+    CARD(480);
+
+    private static final Pattern STORED_URL = Pattern.compile("(.*/images/)(" + ImageStore.HASH + ")\\.\\w+");
+
+    private final int width;
+
+    ImageVariant(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() { return width; }
+
+    public String pathName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ImageVariant fromPathName(String pathName) {
+        for (ImageVariant variant : values()) {
+            if (variant.pathName().equals(pathName)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Thumbnail URLs keyed by variant path name for an image served from this API,
+     * or null for an image hosted elsewhere.
+     */
+    public static Map<String, String> thumbnailsOf(String url) {
+        Matcher matcher = url == null ? null : STORED_URL.matcher(url);
+        if (matcher == null || !matcher.matches()) {
+            return null;
+        }
+        Map<String, String> thumbnails = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            thumbnails.put(variant.pathName(), matcher.group(1) + variant.pathName() + "/" + matcher.group(2) + ".jpg");
+        }
+        return thumbnails;
+    }
+}
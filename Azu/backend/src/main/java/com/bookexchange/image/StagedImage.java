@@ -0,0 +1,10 @@
+package com.bookexchange.image;
+
+import java.nio.file.Path;
+
+/**
+ * An upload that passed {@link ImageStore}'s checks and waits in a temporary file.
+ * Published as an event inside the transaction that refers to it, so the file is
+ * only kept if that transaction commits.
+ */
+public record StagedImage(String name, Path file) {}
@@ -0,0 +1,45 @@
+package com.bookexchange.image;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+
+/**
+ * Moves a staged upload into place and queues its thumbnails once the book update
+ * that refers to it commits; drops it if the update rolls back.
+ */
+@Component
+public class StagedImageListener {
+    private static final Logger logger = LoggerFactory.getLogger(StagedImageListener.class);
+
+    private final ImageStore imageStore;
+    private final ThumbnailGenerator thumbnailGenerator;
+
+    public StagedImageListener(ImageStore imageStore, ThumbnailGenerator thumbnailGenerator) {
+        this.imageStore = imageStore;
+        this.thumbnailGenerator = thumbnailGenerator;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommit(StagedImage image) {
+        try {
+            imageStore.publish(image);
+            thumbnailGenerator.submit(image.name());
+        } catch (IOException e) {
+            logger.error("Could not store image {}: {}", image.name(), e.toString());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onRollback(StagedImage image) {
+        try {
+            imageStore.discard(image);
+        } catch (IOException e) {
+            logger.warn("Could not delete staged image {}: {}", image.file(), e.toString());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bookexchange.image;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders every {@link ImageVariant} of stored originals on a small pool of background
+ * threads, so uploads return without waiting for image decoding. The queue is bounded;
+ * when it is full the job is dropped and counted, and the variant is requested again
+ * the next time someone asks for it.
+ */
+@Component
+public class ThumbnailGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailGenerator.class);
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ImageStore imageStore;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Counter generated;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer renderTime;
+
+    public ThumbnailGenerator(ImageStore imageStore, MeterRegistry registry,
+                              @Value("${app.images.thumbnail-threads:2}") int threads,
+                              @Value("${app.images.thumbnail-queue-capacity:1000}") int capacity) {
+        this.imageStore = imageStore;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), task -> {
+                    Thread thread = new Thread(task, "thumbnails-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.generated = registry.counter("images.thumbnails.generated");
+        this.dropped = registry.counter("images.thumbnails.dropped");
+        this.failed = registry.counter("images.thumbnails.failed");
+        this.renderTime = registry.timer("images.thumbnails.render");
+        registry.gauge("images.thumbnails.queue.size", executor.getQueue(), BlockingQueue::size);
+    }
+
+    /**
+     * Queues the missing variants of an original. A name already queued is not queued twice.
+     */
+    public void submit(String name) {
+        if (!pending.add(name)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    render(name);
+                } finally {
+                    pending.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(name);
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void render(String name) {
+        Path original = imageStore.original(name);
+        String variantName = ImageStore.hashOf(name) + ".jpg";
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path target = imageStore.variant(variant, variantName);
+            if (Files.exists(target)) {
+                continue;
+            }
+            long started = System.nanoTime();
+            try {
+                write(scale(read(original, variant.getWidth()), variant.getWidth()), target);
+                renderTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                generated.increment();
+            } catch (IOException | RuntimeException e) {
+                failed.increment();
+                logger.warn("Could not render {} of image {}: {}", variant.pathName(), name, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Decodes every n-th pixel when the original is more than twice the target width, which is far cheaper than a full decode.
+    private static BufferedImage read(Path file, int width) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("no decoder");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / (width * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Never upscales; transparency is flattened onto white since the output is JPEG.
+    private static BufferedImage scale(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path temp = imageStore.tempFile("thumbnail-");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.createDirectories(target.getParent());
+            ImageStore.moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
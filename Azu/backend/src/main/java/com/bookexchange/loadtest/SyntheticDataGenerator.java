@@ -0,0 +1,219 @@
+package com.bookexchange.loadtest;
+
+import com.bookexchange.config.BookIdGeneratorInitializer;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.ExchangeRequest;
+import com.bookexchange.service.RatingSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Seeds the load-test database with a reproducible synthetic catalog before the
+ * application reports ready (and so before the search index is built). Rows go
+ * in through plain JDBC batches with explicit ids; the same seed always yields
+ * the same data, so runs are comparable.
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticDataGenerator implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // Shared with the load generator so its search queries hit real terms.
+    public static final List<String> WORDS = List.of("shadow", "river", "empire", "garden", "winter", "silent",
+            "crown", "ocean", "machine", "forest", "letters", "glass", "storm", "harbor", "memory", "stone",
+            "night", "kingdom", "orchard", "signal", "voyage", "ember", "lantern", "thief", "atlas", "meridian",
+            "velvet", "copper", "island", "mirror", "falcon", "amber", "paper", "desert", "hollow", "comet",
+            "cathedral", "tide", "wolf", "library", "engine", "saint", "canyon", "festival", "violet", "harvest");
+    public static final List<String> AUTHORS = List.of("Tolkien", "Herbert", "Austen", "Christie", "Le Guin",
+            "Asimov", "Atwood", "Murakami", "Morrison", "Pratchett", "Orwell", "Woolf", "Dickens", "Bronte",
+            "Gaiman", "Jemisin", "Ishiguro", "Adichie", "Borges", "Calvino");
+    public static final List<String> GENRES = List.of("Fantasy", "Science Fiction", "Mystery", "Romance",
+            "History", "Biography", "Poetry", "Thriller", "Horror", "Self-Help", "Philosophy", "Travel");
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
+    @Autowired
+    private BookIdGeneratorInitializer bookIdGeneratorInitializer;
+
+    @Value("${app.loadtest.users:100000}")
+    private int users;
+
+    @Value("${app.loadtest.books:1000000}")
+    private int books;
+
+    @Value("${app.loadtest.reviews:1000000}")
+    private int reviews;
+
+    @Value("${app.loadtest.wishlist-items:500000}")
+    private int wishlistItems;
+
+    @Value("${app.loadtest.exchanges:200000}")
+    private int exchanges;
+
+    @Value("${app.loadtest.seed:42}")
+    private long seed;
+
+    @Value("${app.loadtest.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.loadtest.password:loadtest}")
+    private String password;
+
+    public static String email(long userId) {
+        return "user" + userId + "@loadtest.local";
+    }
+
+    // Deterministic, so the load generator can address a book's owner without asking the API.
+    public static long sellerOf(long bookId, long users) {
+        return 1 + Math.floorMod(bookId * 7919, users);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Load-test database already has {} books; not seeding", existing);
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        String passwordHash = passwordEncoder.encode(password);
+
+        insert("users", "INSERT INTO users (id, username, email, password, is_admin, joined_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", users, seed, (id, random) -> new Object[] {
+                id, "user" + id, email(id), passwordHash, id == 1, timestamp(EPOCH.plusMinutes(id))});
+
+        insert("books", "INSERT INTO books (id, title, author, isbn, genre, condition, price, description, " +
+                "seller_id, is_available, published_year, language, page_count, created_at, for_sale, for_exchange) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", books, seed + 1, (id, random) -> new Object[] {
+                id, capitalize(words(random, 1 + random.nextInt(4))),
+                capitalize(words(random, 1)) + " " + pick(random, AUTHORS),
+                String.format("978-%d-%04d-%04d-%d", random.nextInt(10), random.nextInt(10_000),
+                        random.nextInt(10_000), random.nextInt(10)),
+                pick(random, GENRES),
+                Book.BookCondition.values()[random.nextInt(Book.BookCondition.values().length)].name(),
+                BigDecimal.valueOf(200 + random.nextInt(5_000), 2),
+                words(random, 8 + random.nextInt(24)),
+                sellerOf(id, users),
+                random.nextInt(20) != 0,
+                1900 + random.nextInt(125), "English", 60 + random.nextInt(900),
+                timestamp(EPOCH.plusSeconds(id * 30)),
+                random.nextInt(4) != 0, random.nextInt(3) == 0});
+
+        insert("book_images", "INSERT INTO book_images (book_id, image_url) VALUES (?, ?)", books, seed + 2,
+                (id, random) -> new Object[] {id, "https://images.loadtest.local/books/" + id + ".jpg"});
+
+        insert("reviews", "INSERT INTO reviews (id, user_id, book_id, rating, comment, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", reviews, seed + 3, (id, random) -> new Object[] {
+                id, 1 + random.nextInt(users), 1 + random.nextInt(books), 1 + random.nextInt(5),
+                capitalize(words(random, 6 + random.nextInt(20))), timestamp(EPOCH.plusSeconds(id * 45))});
+
+        insert("wishlist_items", "INSERT INTO wishlist_items (id, user_id, book_id, added_at) VALUES (?, ?, ?, ?)",
+                wishlistItems, seed + 4, (id, random) -> new Object[] {
+                id, 1 + random.nextInt(users), 1 + random.nextInt(books), timestamp(EPOCH.plusSeconds(id * 60))});
+
+        insert("exchange_requests", "INSERT INTO exchange_requests (id, requester_id, owner_id, requested_book_id, " +
+                "offered_book_id, status, message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", exchanges, seed + 5,
+                (id, random) -> {
+                    long requested = 1 + random.nextInt(books);
+                    long offered = 1 + random.nextInt(books);
+                    return new Object[] {id, sellerOf(offered, users), sellerOf(requested, users), requested, offered,
+                            ExchangeRequest.ExchangeStatus.values()[random.nextInt(ExchangeRequest.ExchangeStatus.values().length)].name(),
+                            "Would you swap for " + words(random, 3) + "?", timestamp(EPOCH.plusSeconds(id * 90))};
+                });
+
+        restartIdentities();
+        bookIdGeneratorInitializer.alignWithExistingIds();
+        ratingSummaryService.rebuild();
+        logger.info("Seeded load-test data in {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private interface RowFactory {
+        Object[] row(long id, Random random);
+    }
+
+    // Batches are generated and written in parallel; each draws from its own seeded Random, so the
+    // rows do not depend on thread scheduling.
+    private void insert(String table, String sql, int rows, long tableSeed, RowFactory factory) {
+        long started = System.currentTimeMillis();
+        int batches = (rows + batchSize - 1) / batchSize;
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            Random random = new Random(tableSeed * 1_000_003 + batch);
+            long first = (long) batch * batchSize + 1;
+            long last = Math.min(rows, first + batchSize - 1);
+            List<Object[]> values = new ArrayList<>(batchSize);
+            for (long id = first; id <= last; id++) {
+                values.add(factory.row(id, random));
+            }
+            jdbcTemplate.batchUpdate(sql, values);
+        });
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        logger.info("Inserted {} {} rows in {} ms ({} rows/s)", rows, table, elapsed, rows * 1000L / elapsed);
+    }
+
+    // Explicit ids bypass IDENTITY; on H2 the counters must be moved on by hand (MySQL does it itself).
+    private void restartIdentities() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            return;
+        }
+        restart("users", users);
+        restart("reviews", reviews);
+        restart("wishlist_items", wishlistItems);
+        restart("exchange_requests", exchanges);
+    }
+
+    private void restart(String table, long rows) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (rows + 1));
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(pick(random, WORDS));
+        }
+        return text.toString();
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return Timestamp.valueOf(time);
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookexchange.matching;
+
+import java.util.List;
+
+/**
+ * A closed chain of swaps: {@code userIds.get(i)} gives {@code bookIds.get(i)} to
+ * the next user in the list, and the last user gives to the first.
+ */
+public class ExchangeCycle {
+    private final List<Long> userIds;
+    private final List<Long> bookIds;
+
+    public ExchangeCycle(List<Long> userIds, List<Long> bookIds) {
+        this.userIds = userIds;
+        this.bookIds = bookIds;
+    }
+
+    public List<Long> getUserIds() { return userIds; }
+
+    public List<Long> getBookIds() { return bookIds; }
+
+    public int size() { return userIds.size(); }
+}
@@ -0,0 +1,218 @@
+package com.bookexchange.matching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe "who can give whom something they want" graph. There is an edge
+ * giver -> receiver while the giver lists at least one exchangeable book that is
+ * on the receiver's wishlist; the edge remembers those books. Listing a book or
+ * wishing for one touches only that book's edges, and swap cycles through a user
+ * are found by a bounded walk from that user instead of a join over every table.
+ */
+public class ExchangeGraph {
+    private final Map<Long, Long> ownerByBook = new HashMap<>();
+    private final Map<Long, Set<Long>> wantersByBook = new HashMap<>();
+    private final Map<Long, Map<Long, Set<Long>>> outgoing = new HashMap<>();
+    private final Map<Long, Set<Long>> incoming = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Lists (or moves) an exchangeable book.
+    public void listBook(long bookId, long ownerId) {
+        lock.writeLock().lock();
+        try {
+            Long previous = ownerByBook.get(bookId);
+            if (previous != null && previous == ownerId) {
+                return;
+            }
+            unlistLocked(bookId);
+            ownerByBook.put(bookId, ownerId);
+            for (Long wanter : wantersByBook.getOrDefault(bookId, Set.of())) {
+                addEdgeLocked(ownerId, wanter, bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The book is no longer offered for exchange; wishes for it are kept.
+    public void unlistBook(long bookId) {
+        lock.writeLock().lock();
+        try {
+            unlistLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(long bookId) {
+        lock.writeLock().lock();
+        try {
+            unlistLocked(bookId);
+            wantersByBook.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addWish(long userId, long bookId) {
+        lock.writeLock().lock();
+        try {
+            if (!wantersByBook.computeIfAbsent(bookId, k -> new HashSet<>(2)).add(userId)) {
+                return;
+            }
+            Long owner = ownerByBook.get(bookId);
+            if (owner != null) {
+                addEdgeLocked(owner, userId, bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeWish(long userId, long bookId) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> wanters = wantersByBook.get(bookId);
+            if (wanters == null || !wanters.remove(userId)) {
+                return;
+            }
+            if (wanters.isEmpty()) {
+                wantersByBook.remove(bookId);
+            }
+            Long owner = ownerByBook.get(bookId);
+            if (owner != null) {
+                removeEdgeLocked(owner, userId, bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ownerByBook.clear();
+            wantersByBook.clear();
+            outgoing.clear();
+            incoming.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int listedBooks() {
+        lock.readLock().lock();
+        try {
+            return ownerByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Swap cycles of 2 up to {@code maxLength} users that start at the given user,
+     * shortest first. {@code maxVisits} bounds the walk for very well connected
+     * users, so a busy graph yields a partial answer rather than a slow one.
+     */
+    public List<ExchangeCycle> findCycles(long userId, int maxLength, int limit, int maxVisits) {
+        lock.readLock().lock();
+        try {
+            List<ExchangeCycle> cycles = new ArrayList<>();
+            Set<Long> closers = incoming.getOrDefault(userId, Set.of());
+            if (closers.isEmpty() || !outgoing.containsKey(userId)) {
+                return cycles;
+            }
+            int[] visits = {0};
+            List<Long> path = new ArrayList<>(maxLength);
+            path.add(userId);
+            for (int length = 2; length <= maxLength && cycles.size() < limit && visits[0] < maxVisits; length++) {
+                walk(path, length, closers, cycles, limit, visits, maxVisits);
+            }
+            return cycles;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void walk(List<Long> path, int length, Set<Long> closers, List<ExchangeCycle> cycles,
+                      int limit, int[] visits, int maxVisits) {
+        long current = path.get(path.size() - 1);
+        boolean last = path.size() == length - 1;
+        for (Long next : outgoing.getOrDefault(current, Map.of()).keySet()) {
+            if (cycles.size() >= limit || ++visits[0] > maxVisits) {
+                return;
+            }
+            if (path.contains(next)) {
+                continue;
+            }
+            // The last user before closing the loop must be able to give back to the start.
+            if (last) {
+                if (closers.contains(next)) {
+                    path.add(next);
+                    cycles.add(toCycle(path));
+                    path.remove(path.size() - 1);
+                }
+            } else {
+                path.add(next);
+                walk(path, length, closers, cycles, limit, visits, maxVisits);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private ExchangeCycle toCycle(List<Long> users) {
+        List<Long> books = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            Set<Long> offered = outgoing.get(users.get(i)).get(users.get((i + 1) % users.size()));
+            books.add(Collections.min(offered));
+        }
+        return new ExchangeCycle(List.copyOf(users), books);
+    }
+
+    private void unlistLocked(long bookId) {
+        Long owner = ownerByBook.remove(bookId);
+        if (owner == null) {
+            return;
+        }
+        for (Long wanter : wantersByBook.getOrDefault(bookId, Set.of())) {
+            removeEdgeLocked(owner, wanter, bookId);
+        }
+    }
+
+    private void addEdgeLocked(long giver, long receiver, long bookId) {
+        if (giver == receiver) {
+            return;
+        }
+        outgoing.computeIfAbsent(giver, k -> new HashMap<>())
+                .computeIfAbsent(receiver, k -> new HashSet<>(2))
+                .add(bookId);
+        incoming.computeIfAbsent(receiver, k -> new HashSet<>()).add(giver);
+    }
+
+    private void removeEdgeLocked(long giver, long receiver, long bookId) {
+        Map<Long, Set<Long>> targets = outgoing.get(giver);
+        if (targets == null) {
+            return;
+        }
+        Set<Long> books = targets.get(receiver);
+        if (books == null || !books.remove(bookId) || !books.isEmpty()) {
+            return;
+        }
+        targets.remove(receiver);
+        if (targets.isEmpty()) {
+            outgoing.remove(giver);
+        }
+        Set<Long> givers = incoming.get(receiver);
+        givers.remove(giver);
+        if (givers.isEmpty()) {
+            incoming.remove(receiver);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bookexchange.matching;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.event.WishlistChangedEvent;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.WishlistItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class ExchangeMatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeMatcher.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private WishlistItemRepository wishlistItemRepository;
+
+    @Value("${app.exchange.matching.max-visits:20000}")
+    private int maxVisits;
+
+    private final ExchangeGraph graph = new ExchangeGraph();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        graph.clear();
+        try (Stream<WishlistItemRepository.Wish> wishes = wishlistItemRepository.streamWishes()) {
+            wishes.forEach(wish -> graph.addWish(wish.getUserId(), wish.getBookId()));
+        }
+        try (Stream<BookRepository.BookOwner> books = bookRepository.streamExchangeableOwners()) {
+            books.forEach(book -> graph.listBook(book.getBookId(), book.getSellerId()));
+        }
+        logger.info("Built exchange graph over {} exchangeable books in {} ms",
+                graph.listedBooks(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            graph.removeBook(book.getId());
+        } else if (Boolean.TRUE.equals(book.getForExchange()) && Boolean.TRUE.equals(book.getIsAvailable())) {
+            graph.listBook(book.getId(), book.getSeller().getId());
+        } else {
+            graph.unlistBook(book.getId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWishlistChanged(WishlistChangedEvent event) {
+        if (event.getType() == WishlistChangedEvent.Type.ADDED) {
+            graph.addWish(event.getUserId(), event.getBookId());
+        } else {
+            graph.removeWish(event.getUserId(), event.getBookId());
+        }
+    }
+
+    public List<ExchangeCycle> findCycles(Long userId, int maxLength, int limit) {
+        return graph.findCycles(userId, maxLength, limit, maxVisits);
+    }
+}
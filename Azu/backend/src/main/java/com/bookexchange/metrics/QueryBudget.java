@@ -0,0 +1,20 @@
+package com.bookexchange.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one call of a controller method may issue on the
+ * request thread. Going over is counted and logged; with
+ * {@code app.metrics.query-budget.strict=true}, which the test profile sets, the
+ * request fails with {@link QueryBudgetExceededException}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,7 @@
+package com.bookexchange.metrics;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String handler, int statements, int budget) {
+        super(handler + " issued " + statements + " SQL statements; its budget is " + budget);
+    }
+}
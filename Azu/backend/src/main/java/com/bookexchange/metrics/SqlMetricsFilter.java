@@ -0,0 +1,76 @@
+package com.bookexchange.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes per-request SQL statement counts and execution time, tagged like
+ * {@code http.server.requests}, and enforces {@link QueryBudget}s.
+ */
+public class SqlMetricsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(SqlMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final boolean strict;
+
+    public SqlMetricsFilter(MeterRegistry registry, boolean strict) {
+        this.registry = registry;
+        this.strict = strict;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return; // not handled by a controller
+        }
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern.toString());
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements issued by the request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL for the request")
+                .tags(tags)
+                .register(registry)
+                .record(stats.getExecutionNanos(), TimeUnit.NANOSECONDS);
+
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        QueryBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(QueryBudget.class) : null;
+        if (budget == null || stats.getStatements() <= budget.value()) {
+            return;
+        }
+        Counter.builder("http.server.requests.sql.budget.exceeded").tags(tags).register(registry).increment();
+        QueryBudgetExceededException exceeded = new QueryBudgetExceededException(
+                request.getMethod() + " " + pattern, stats.getStatements(), budget.value());
+        if (strict) {
+            throw exceeded;
+        }
+        logger.warn(exceeded.getMessage());
+    }
+}
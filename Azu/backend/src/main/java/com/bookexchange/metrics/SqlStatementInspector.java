@@ -0,0 +1,18 @@
+package com.bookexchange.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares, native queries and JDBC batches
+ * included (a batch counts once), without altering the SQL.
+ */
+public class SqlStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+        return sql;
+    }
+}
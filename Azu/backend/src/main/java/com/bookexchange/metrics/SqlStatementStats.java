@@ -0,0 +1,69 @@
+package com.bookexchange.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL statements issued by the current request. Hibernate reports into it from
+ * {@link SqlStatementInspector} and {@link SqlTimingListener}; {@link SqlMetricsFilter}
+ * opens it when a request starts and publishes it when the request ends. Work
+ * done off the request thread (streamed responses, async listeners) is not counted
+ * unless it was handed over with {@link #propagate(Runnable)}.
+ */
+public final class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong executionNanos = new AtomicLong();
+
+    private SqlStatementStats() {}
+
+    static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The statistics of the request running on this thread, or null outside a request.
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps a task the current request hands to another thread so the statements it
+     * issues count towards the request.
+     */
+    public static Runnable propagate(Runnable task) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    void statementPrepared() {
+        statements.incrementAndGet();
+    }
+
+    void statementExecuted(long nanos) {
+        executionNanos.addAndGet(nanos);
+    }
+
+    public int getStatements() { return statements.get(); }
+
+    public long getExecutionNanos() { return executionNanos.get(); }
+}
@@ -0,0 +1,39 @@
+package com.bookexchange.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times statement and batch execution. Hibernate creates one instance per
+ * session, so the start timestamps need no synchronization.
+ */
+public class SqlTimingListener implements SessionEventListener {
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && start != 0) {
+            stats.statementExecuted(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookexchange.push;
+
+/**
+ * One delta on a user's event stream. Ids increase across the node, so a client
+ * can resume with the id of the last event it saw.
+ */
+public class PushEvent {
+    private final long id;
+    private final String type;
+    private final Object data;
+
+    public PushEvent(long id, String type, Object data) {
+        this.id = id;
+        this.type = type;
+        this.data = data;
+    }
+
+    public long getId() { return id; }
+
+    public String getType() { return type; }
+
+    public Object getData() { return data; }
+}
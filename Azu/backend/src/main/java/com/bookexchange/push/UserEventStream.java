@@ -0,0 +1,314 @@
+package com.bookexchange.push;
+
+import com.bookexchange.dto.ExchangeRequestView;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.event.ExchangeRequestChangedEvent;
+import com.bookexchange.repository.WishlistItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user Server-Sent Events. An open stream is only an async response held by
+ * the servlet container, not a thread, so a node can keep tens of thousands of
+ * them. Each user's latest events are kept briefly so a reconnecting client can
+ * resume from its Last-Event-ID. If its events have already been dropped, it gets
+ * a {@code reset} event and should reload its lists.
+ * <p>
+ * Publishing and heartbeats only queue events on each connection; a small pool of
+ * push threads writes them, one connection at a time and in order. A client that
+ * falls more than {@code app.push.connection-buffer} events behind is disconnected,
+ * and resumes from the replay buffer when it reconnects.
+ */
+@Service
+public class UserEventStream {
+    public static final String EXCHANGE_CREATED = "exchange.created";
+    public static final String EXCHANGE_STATUS = "exchange.status";
+    public static final String WISHLIST_UNAVAILABLE = "wishlist.unavailable";
+    public static final String RESET = "reset";
+
+    private static final PushEvent HEARTBEAT = new PushEvent(0, "heartbeat", null);
+    // Sends written per turn, so one busy connection does not hold a push thread.
+    private static final int SENDS_PER_TURN = 16;
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    // A user's publishes and subscribes are serialized, so a replay is never overtaken by a live event.
+    private final Object[] userLocks = new Object[256];
+    private final Cache<Long, Replay> recent;
+    // Seeded from the clock so ids keep increasing across restarts.
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicInteger connections = new AtomicInteger();
+    private final WishlistItemRepository wishlistItemRepository;
+    private final ThreadPoolExecutor senders;
+    private final Counter disconnected;
+    private final Duration timeout;
+    private final int replaySize;
+    private final int connectionBuffer;
+
+    public UserEventStream(WishlistItemRepository wishlistItemRepository, MeterRegistry registry,
+                           @Value("${app.push.timeout:30m}") Duration timeout,
+                           @Value("${app.push.replay-size:50}") int replaySize,
+                           @Value("${app.push.replay-ttl:10m}") Duration replayTtl,
+                           @Value("${app.push.send-threads:4}") int sendThreads,
+                           @Value("${app.push.send-queue-capacity:50000}") int sendQueueCapacity,
+                           @Value("${app.push.connection-buffer:100}") int connectionBuffer) {
+        this.wishlistItemRepository = wishlistItemRepository;
+        this.timeout = timeout;
+        this.replaySize = replaySize;
+        this.connectionBuffer = connectionBuffer;
+        this.recent = Caffeine.newBuilder().expireAfterAccess(replayTtl).build();
+        for (int i = 0; i < userLocks.length; i++) {
+            userLocks[i] = new Object();
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueueCapacity), task -> {
+                    Thread thread = new Thread(task, "push-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.disconnected = registry.counter("push.connections.dropped");
+        registry.gauge("push.connections", connections);
+        registry.gauge("push.send.queue.size", senders.getQueue(), BlockingQueue::size);
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Connection connection = new Connection(emitter);
+        Runnable remove = () -> connectionsByUser.computeIfPresent(userId, (k, set) -> {
+            if (set.remove(connection)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        synchronized (lockFor(userId)) {
+            Replay replay = recent.getIfPresent(userId);
+            if (lastEventId != null) {
+                replay(replay, lastEventId, connection);
+            }
+            if (replay == null) {
+                recent.put(userId, new Replay(sequence.get()));
+            }
+            connectionsByUser.compute(userId, (k, set) -> {
+                Set<Connection> userConnections = set != null ? set : ConcurrentHashMap.newKeySet();
+                userConnections.add(connection);
+                return userConnections;
+            });
+            connections.incrementAndGet();
+        }
+        return emitter;
+    }
+
+    public void publish(Long userId, String type, Object data) {
+        synchronized (lockFor(userId)) {
+            PushEvent event = new PushEvent(sequence.incrementAndGet(), type, data);
+            Replay replay = recent.get(userId, k -> new Replay(event.getId() - 1));
+            synchronized (replay) {
+                replay.events.addLast(event);
+                while (replay.events.size() > replaySize) {
+                    replay.droppedUpTo = replay.events.removeFirst().getId();
+                }
+            }
+            for (Connection connection : connectionsByUser.getOrDefault(userId, Set.of())) {
+                connection.enqueue(event);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExchangeRequestChanged(ExchangeRequestChangedEvent event) {
+        ExchangeRequestView request = event.getRequest();
+        if (event.getType() == ExchangeRequestChangedEvent.Type.CREATED) {
+            publish(request.getOwnerId(), EXCHANGE_CREATED, request);
+            publish(request.getRequesterId(), EXCHANGE_CREATED, request);
+        } else {
+            Map<String, Object> delta = Map.of("id", request.getId(), "status", request.getStatus());
+            publish(request.getRequesterId(), EXCHANGE_STATUS, delta);
+            publish(request.getOwnerId(), EXCHANGE_STATUS, delta);
+        }
+    }
+
+    // Runs inside the write transaction: by commit time a deleted book's wishlist rows are gone.
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.isWithdrawn() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<Long> wishers = wishlistItemRepository.findUserIdsByBookId(event.getBookId());
+        if (wishers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> delta = Map.of("bookId", event.getBookId(), "title", event.getBook().getTitle());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wishers.forEach(userId -> publish(userId, WISHLIST_UNAVAILABLE, delta));
+            }
+        });
+    }
+
+    // Keeps idle connections from being closed by proxies and detects dead clients.
+    @Scheduled(fixedDelayString = "${app.push.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Set<Connection> userConnections : connectionsByUser.values()) {
+            for (Connection connection : userConnections) {
+                connection.enqueue(HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    // Without a buffer, or with events dropped after the client's last one, the client must reload.
+    private void replay(Replay replay, long lastEventId, Connection connection) {
+        List<PushEvent> missed = new ArrayList<>();
+        boolean complete = false;
+        if (replay != null) {
+            synchronized (replay) {
+                complete = lastEventId >= replay.droppedUpTo;
+                for (PushEvent event : replay.events) {
+                    if (event.getId() > lastEventId) {
+                        missed.add(event);
+                    }
+                }
+            }
+        }
+        if (!complete) {
+            connection.enqueue(new PushEvent(sequence.get(), RESET, Map.of()));
+            return;
+        }
+        missed.forEach(connection::enqueue);
+    }
+
+    private Object lockFor(Long userId) {
+        return userLocks[Long.hashCode(userId) & (userLocks.length - 1)];
+    }
+
+    /**
+     * One open stream and the events waiting for it. At most one push thread drains
+     * it at a time, so events go out in the order they were queued.
+     */
+    private final class Connection implements Runnable {
+        private final SseEmitter emitter;
+        private final Queue<PushEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(PushEvent event) {
+            if (closed) {
+                return;
+            }
+            if (size.incrementAndGet() > connectionBuffer) {
+                close(new IllegalStateException("Client fell " + connectionBuffer + " events behind"));
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    close(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                PushEvent event;
+                for (int sent = 0; sent < SENDS_PER_TURN && !closed && (event = pending.poll()) != null; sent++) {
+                    size.decrementAndGet();
+                    send(event);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(PushEvent event) {
+            try {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getId()))
+                            .name(event.getType())
+                            .data(event.getData()));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            }
+        }
+
+        private void close(Throwable cause) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            disconnected.increment();
+            emitter.completeWithError(cause);
+        }
+    }
+
+    private static final class Replay {
+        private final Deque<PushEvent> events = new ArrayDeque<>();
+        // Nothing before this id is known, whether dropped or published before the buffer existed.
+        private long droppedUpTo;
+
+        private Replay(long droppedUpTo) {
+            this.droppedUpTo = droppedUpTo;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.bookexchange.ratelimit;
+
+import com.bookexchange.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate of configured endpoint groups, per signed-in user or, for
+ * anonymous requests, per client address. Runs after {@link
+ * com.bookexchange.security.AuthTokenFilter} so the user is known. Each group has its
+ * own {@link TokenBucketStore}; a request with no token left gets a 429 with
+ * {@code Retry-After}. Paths are matched exactly, below the context path, after the
+ * same decoding the handler mappings apply: percent-escapes are decoded, and
+ * {@code ;} parameters and doubled slashes are dropped, so no spelling of a limited
+ * path reaches its handler unlimited.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final Map<String, Group> groupsByPath = new HashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        properties.getGroups().forEach((name, config) -> {
+            long burst = config.getBurst() != null ? config.getBurst() : config.getLimit();
+            TokenBucketStore buckets = new TokenBucketStore(config.getLimit(), config.getPeriod(), burst,
+                    properties.getStripes(), properties.getMaxKeys());
+            Group group = new Group(buckets, Counter.builder("http.server.requests.rate-limited")
+                    .description("Requests refused for exceeding their group's rate limit")
+                    .tag("group", name)
+                    .register(registry));
+            Gauge.builder("rate-limit.buckets", buckets, TokenBucketStore::size)
+                    .description("Clients currently tracked by the rate limiter")
+                    .tag("group", name)
+                    .register(registry);
+            for (String path : config.getPaths()) {
+                if (groupsByPath.putIfAbsent(path, group) != null) {
+                    throw new IllegalArgumentException("Path " + path + " is in more than one rate limit group");
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = groupsByPath.isEmpty() ? null
+                : groupsByPath.get(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long wait = group.buckets.tryAcquire(clientKey(request), System.nanoTime());
+        if (wait == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        group.rejected.increment();
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests; retry in " + seconds + "s");
+    }
+
+    // Behind a proxy, set server.forward-headers-strategy so the address is the client's.
+    private static Object clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private record Group(TokenBucketStore buckets, Counter rejected) {}
+}
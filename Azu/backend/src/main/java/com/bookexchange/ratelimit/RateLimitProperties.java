@@ -0,0 +1,51 @@
+package com.bookexchange.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int stripes = 16;
+    private int maxKeys = 100000;
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public static class Group {
+        private List<String> paths = new ArrayList<>();
+        private long limit;
+        private Duration period = Duration.ofMinutes(1);
+        // Requests allowed at once; defaults to the limit.
+        private Long burst;
+
+        // Getters and Setters
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+
+        public long getLimit() { return limit; }
+        public void setLimit(long limit) { this.limit = limit; }
+
+        public Duration getPeriod() { return period; }
+        public void setPeriod(Duration period) { this.period = period; }
+
+        public Long getBurst() { return burst; }
+        public void setBurst(Long burst) { this.burst = burst; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getStripes() { return stripes; }
+    public void setStripes(int stripes) { this.stripes = stripes; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public Map<String, Group> getGroups() { return groups; }
+    public void setGroups(Map<String, Group> groups) { this.groups = groups; }
+}
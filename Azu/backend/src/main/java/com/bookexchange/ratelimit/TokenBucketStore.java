@@ -0,0 +1,132 @@
+package com.bookexchange.ratelimit;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for one limit, one per key. A bucket is a single {@link AtomicLong}
+ * holding the time at which it will be full again (the generic cell rate algorithm),
+ * so taking a token is one compare-and-set and no lock is ever held. A bucket that has
+ * refilled holds no information and may be dropped.
+ * <p>
+ * Keys are spread over independent stripes, each bounded to its share of the maximum.
+ * A stripe sweeps out refilled buckets when a new key arrives and it is full or has
+ * not been swept for a refill period. Only if every bucket in it is still in use does
+ * it drop arbitrary ones; that can let a dropped client through early, never hold
+ * one back. Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucketStore {
+    // Marks a bucket taken out of its stripe; whoever finds it looks the key up again.
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final long interval;
+    private final long tolerance;
+    private final long sweepInterval;
+    private final int stripeCapacity;
+    private final int shift;
+    private final Stripe[] stripes;
+
+    public TokenBucketStore(long limit, Duration period, long burst, int stripes, int maxKeys) {
+        if (limit <= 0 || period.isNegative() || period.isZero() || burst <= 0) {
+            throw new IllegalArgumentException("limit, period and burst must be positive");
+        }
+        this.interval = Math.max(1, period.toNanos() / limit);
+        this.tolerance = interval * (burst - 1);
+        this.sweepInterval = Math.max(Duration.ofSeconds(1).toNanos(), interval * burst);
+        int count = Integer.highestOneBit(Math.max(1, Math.min(stripes, 1 << 16)));
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+        this.stripeCapacity = Math.max(1, (maxKeys + count - 1) / count);
+        this.stripes = new Stripe[count];
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(now + sweepInterval);
+        }
+    }
+
+    /**
+     * Takes a token from the key's bucket. Returns zero when one was available,
+     * otherwise the nanoseconds until one will be.
+     */
+    public long tryAcquire(Object key, long now) {
+        Stripe stripe = stripeFor(key);
+        while (true) {
+            AtomicLong bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new AtomicLong(now + interval);
+                if (stripe.buckets.putIfAbsent(key, bucket) == null) {
+                    stripe.added(now);
+                    return 0;
+                }
+                continue;
+            }
+            long full = bucket.get();
+            if (full == EVICTED) {
+                stripe.buckets.remove(key, bucket);
+                continue;
+            }
+            long start = full - now > 0 ? full : now;
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(Object key) {
+        // The top bits of a multiplicative hash, so stripes don't share the map's bin bits.
+        return stripes.length == 1 ? stripes[0] : stripes[(key.hashCode() * 0x9E3779B9) >>> shift];
+    }
+
+    private final class Stripe {
+        private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep;
+
+        private Stripe(long nextSweep) {
+            this.nextSweep = new AtomicLong(nextSweep);
+        }
+
+        private void added(long now) {
+            long due = nextSweep.get();
+            boolean full = buckets.size() > stripeCapacity;
+            // One thread sweeps; the others carry on.
+            if ((full || now - due >= 0) && nextSweep.compareAndSet(due, now + sweepInterval)) {
+                sweep(now);
+            }
+        }
+
+        private void sweep(long now) {
+            for (Map.Entry<Object, AtomicLong> entry : buckets.entrySet()) {
+                AtomicLong bucket = entry.getValue();
+                long full = bucket.get();
+                if (full != EVICTED && full - now <= 0 && bucket.compareAndSet(full, EVICTED)) {
+                    buckets.remove(entry.getKey(), bucket);
+                }
+            }
+            // Still over: make room for a quarter of the capacity so this is not repeated per key.
+            int excess = buckets.size() - stripeCapacity * 3 / 4;
+            if (buckets.size() > stripeCapacity) {
+                Iterator<Map.Entry<Object, AtomicLong>> it = buckets.entrySet().iterator();
+                while (excess > 0 && it.hasNext()) {
+                    Map.Entry<Object, AtomicLong> entry = it.next();
+                    entry.getValue().set(EVICTED);
+                    buckets.remove(entry.getKey(), entry.getValue());
+                    excess--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.entity.Book;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+public interface BookColumns {
+    /**
+     * The given fields of the books matching {@code where}, one map per row, reading
+     * only their columns. Fields are the BookView properties stored on the book or its
+     * seller; see {@link #isColumn(String)}.
+     */
+    List<Map<String, Object>> findColumns(Collection<String> fields, Specification<Book> where,
+                                          BiFunction<Root<Book>, CriteriaBuilder, List<Order>> orderBy,
+                                          int offset, int limit);
+
+    static boolean isColumn(String field) {
+        return BookColumnsImpl.COLUMNS.containsKey(field);
+    }
+}
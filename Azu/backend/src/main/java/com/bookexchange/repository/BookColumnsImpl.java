@@ -0,0 +1,44 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static java.util.Map.entry;
+
+public class BookColumnsImpl implements BookColumns {
+    // Also used for the books of other entities, so each column is a path from wherever the book is.
+    static final Map<String, Function<Path<Book>, Expression<?>>> COLUMNS = Map.ofEntries(
+            attribute("id"), attribute("title"), attribute("author"), attribute("isbn"), attribute("genre"),
+            attribute("condition"), attribute("price"), attribute("description"),
+            entry("sellerId", book -> book.get("seller").get("id")),
+            entry("sellerName", book -> book.get("seller").get("username")),
+            attribute("isAvailable"), attribute("publishedYear"), attribute("language"), attribute("pageCount"),
+            attribute("createdAt"), attribute("forSale"), attribute("forExchange"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findColumns(Collection<String> fields, Specification<Book> where,
+                                                 BiFunction<Root<Book>, CriteriaBuilder, List<Order>> orderBy,
+                                                 int offset, int limit) {
+        return ColumnSelect.select(entityManager, Book.class, COLUMNS, fields, where, orderBy, offset, limit);
+    }
+
+    private static Map.Entry<String, Function<Path<Book>, Expression<?>>> attribute(String name) {
+        return entry(name, book -> book.get(name));
+    }
+}
@@ -0,0 +1,54 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.entity.BookRatingSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface BookRatingSummaryRepository extends JpaRepository<BookRatingSummary, Long> {
+    // Native writes name the table they touch; otherwise Hibernate clears the whole second-level cache.
+    String SUMMARY_TABLE = "book_rating_summaries";
+
+    @Query("SELECT s FROM BookRatingSummary s WHERE s.bookId IN (SELECT b.id FROM Book b WHERE b.seller.id = :sellerId)")
+    List<BookRatingSummary> findBySellerId(@Param("sellerId") Long sellerId);
+
+    // A single upsert so concurrent reviews of the same book never lose an increment.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = SUMMARY_TABLE))
+    @Query(value = "INSERT INTO book_rating_summaries " +
+                   "(book_id, rating_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5) " +
+                   "VALUES (:bookId, 1, :rating, :r1, :r2, :r3, :r4, :r5) " +
+                   "ON DUPLICATE KEY UPDATE rating_count = rating_count + 1, rating_sum = rating_sum + :rating, " +
+                   "rating_1 = rating_1 + :r1, rating_2 = rating_2 + :r2, rating_3 = rating_3 + :r3, " +
+                   "rating_4 = rating_4 + :r4, rating_5 = rating_5 + :r5",
+           nativeQuery = true)
+    void addRating(@Param("bookId") Long bookId, @Param("rating") int rating,
+                   @Param("r1") int r1, @Param("r2") int r2, @Param("r3") int r3,
+                   @Param("r4") int r4, @Param("r5") int r5);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = SUMMARY_TABLE))
+    @Query(value = "DELETE FROM book_rating_summaries", nativeQuery = true)
+    int deleteAllSummaries();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = SUMMARY_TABLE))
+    @Query(value = "INSERT INTO book_rating_summaries " +
+                   "(book_id, rating_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5) " +
+                   "SELECT book_id, COUNT(*), SUM(rating), " +
+                   "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) " +
+                   "FROM reviews WHERE rating IS NOT NULL AND book_id IS NOT NULL GROUP BY book_id",
+           nativeQuery = true)
+    int insertSummariesFromReviews();
+}
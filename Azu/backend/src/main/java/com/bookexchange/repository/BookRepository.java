@@ -1,23 +1,152 @@
 package com.bookexchange.repository;
 
+import com.bookexchange.dto.BookCursor;
 import com.bookexchange.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    List<Book> findBySellerIdAndIsAvailableTrue(Long sellerId);
-    List<Book> findByIsAvailableTrueOrderByCreatedAtDesc();
-    List<Book> findByGenreAndIsAvailableTrue(String genre);
-    List<Book> findByForSaleTrueAndIsAvailableTrue();
-    List<Book> findByForExchangeTrueAndIsAvailableTrue();
-    
-    @Query("SELECT b FROM Book b WHERE b.isAvailable = true AND " +
-           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(b.author) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Book> findBySearchTerm(@Param("searchTerm") String searchTerm);
+public interface BookRepository extends JpaRepository<Book, Long>, BookColumns {
+    String AFTER_CURSOR = "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+                          "ORDER BY b.createdAt DESC, b.id DESC";
+    String STREAM_FETCH_SIZE = "500";
+
+    @EntityGraph(attributePaths = "seller")
+    List<Book> findBySellerIdAndIsAvailableTrueOrderByCreatedAtDesc(Long sellerId);
+
+    @EntityGraph(attributePaths = {"seller", "images"})
+    Optional<Book> findWithSellerAndImagesById(Long id);
+
+    @EntityGraph(attributePaths = "seller")
+    List<Book> findWithSellerByIdIn(Collection<Long> ids);
+
+    // Images are loaded for a whole page at once; fetch-joining the collection would defeat the page limit.
+    @Query("SELECT b.id AS bookId, i AS imageUrl FROM Book b JOIN b.images i WHERE b.id IN :ids")
+    List<BookImage> findImagesByBookIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.isAvailable = true AND " + AFTER_CURSOR)
+    List<Book> findAvailableAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                  Pageable pageable);
+
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.genre = :genre AND b.isAvailable = true AND " + AFTER_CURSOR)
+    List<Book> findByGenreAfter(@Param("genre") String genre, @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.forSale = true AND b.isAvailable = true AND " + AFTER_CURSOR)
+    List<Book> findForSaleAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                Pageable pageable);
+
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.forExchange = true AND b.isAvailable = true AND " + AFTER_CURSOR)
+    List<Book> findForExchangeAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                    Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.isAvailable = true AND " + AFTER_CURSOR)
+    Stream<Book> streamAvailableAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.genre = :genre AND b.isAvailable = true AND " + AFTER_CURSOR)
+    Stream<Book> streamByGenreAfter(@Param("genre") String genre, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.forSale = true AND b.isAvailable = true AND " + AFTER_CURSOR)
+    Stream<Book> streamForSaleAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b WHERE b.forExchange = true AND b.isAvailable = true AND " + AFTER_CURSOR)
+    Stream<Book> streamForExchangeAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id);
+
+    @Query("SELECT new com.bookexchange.dto.BookCursor(b.createdAt, b.id) FROM Book b " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookCursor> findLatestPosition(Pageable pageable);
+
+    // Ascending and bounded above, so an export is a stable snapshot whose upper bound is the next watermark.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT b FROM Book b " +
+           "WHERE (b.createdAt > :afterCreatedAt OR (b.createdAt = :afterCreatedAt AND b.id > :afterId)) " +
+           "AND (b.createdAt < :toCreatedAt OR (b.createdAt = :toCreatedAt AND b.id <= :toId)) " +
+           "ORDER BY b.createdAt ASC, b.id ASC")
+    Stream<Book> streamCatalogBetween(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") Long afterId,
+                                      @Param("toCreatedAt") LocalDateTime toCreatedAt,
+                                      @Param("toId") Long toId);
+
+    // Only the attributes the facet index needs, without materialising entities.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b.id AS id, b.genre AS genre, b.condition AS condition, b.language AS language, " +
+           "b.price AS price, b.isAvailable AS isAvailable, b.forSale AS forSale, b.forExchange AS forExchange " +
+           "FROM Book b ORDER BY b.id")
+    Stream<BookAttributes> streamAttributes();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b.id AS bookId, b.seller.id AS sellerId FROM Book b " +
+           "WHERE b.forExchange = true AND b.isAvailable = true")
+    Stream<BookOwner> streamExchangeableOwners();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b.id AS id, b.title AS title, b.author AS author, b.genre AS genre FROM Book b " +
+           "WHERE b.isAvailable = true")
+    Stream<BookLabels> streamAvailableLabels();
+
+    interface BookImage {
+        Long getBookId();
+        String getImageUrl();
+    }
+
+    interface BookOwner {
+        Long getBookId();
+        Long getSellerId();
+    }
+
+    interface BookLabels {
+        Long getId();
+        String getTitle();
+        String getAuthor();
+        String getGenre();
+    }
+
+    interface BookAttributes {
+        Long getId();
+        String getGenre();
+        Book.BookCondition getCondition();
+        String getLanguage();
+        BigDecimal getPrice();
+        Boolean getIsAvailable();
+        Boolean getForSale();
+        Boolean getForExchange();
+    }
 }
@@ -0,0 +1,93 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.dto.BookCursor;
+import com.bookexchange.dto.BookQuery;
+import com.bookexchange.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+public final class BookSpecifications {
+    private BookSpecifications() {}
+
+    /**
+     * Combines every filter set on the query with the availability check. Unset
+     * filters contribute nothing, so each combination becomes one WHERE clause.
+     */
+    public static Specification<Book> matching(BookQuery query) {
+        return Specification.where(isAvailable())
+                .and(equalTo("genre", query.getGenre()))
+                .and(equalTo("condition", query.getCondition()))
+                .and(equalTo("language", query.getLanguage()))
+                .and(between("price", query.getMinPrice(), query.getMaxPrice()))
+                .and(between("publishedYear", query.getMinYear(), query.getMaxYear()))
+                .and(flag("forSale", query.getForSale()))
+                .and(flag("forExchange", query.getForExchange()))
+                .and(soldBy(query.getSellerId()));
+    }
+
+    public static Specification<Book> isAvailable() {
+        return (root, query, cb) -> cb.isTrue(root.get("isAvailable"));
+    }
+
+    // The listings behind the cursor-paged endpoints, as specifications for sparse reads.
+    public static Specification<Book> inGenre(String genre) {
+        return Specification.where(isAvailable()).and(equalTo("genre", genre));
+    }
+
+    public static Specification<Book> forSale() {
+        return Specification.where(isAvailable()).and(flag("forSale", true));
+    }
+
+    public static Specification<Book> forExchange() {
+        return Specification.where(isAvailable()).and(flag("forExchange", true));
+    }
+
+    // Rows past the cursor in (createdAt DESC, id DESC) order, as BookRepository.AFTER_CURSOR.
+    public static Specification<Book> after(BookCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Book> soldBy(Long sellerId) {
+        if (sellerId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("seller").get("id"), sellerId);
+    }
+
+    private static Specification<Book> equalTo(String attribute, Object value) {
+        if (value == null || value instanceof String text && text.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    private static Specification<Book> flag(String attribute, Boolean value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> value ? cb.isTrue(root.get(attribute)) : cb.isFalse(root.get(attribute));
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Book> between(String attribute, T min, T max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min == null) {
+                return cb.lessThanOrEqualTo(root.get(attribute), max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), min);
+            }
+            return cb.between(root.get(attribute), min, max);
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.bookexchange.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Reads chosen attributes as tuples instead of entities, for sparse fieldsets. Each
+ * field name maps to an expression from the query root, and only the requested ones
+ * become columns of the SELECT; a path through an association adds its join only when
+ * selected. Rows come back as maps from field name to value, in request order. A
+ * limit of zero reads every row.
+ */
+final class ColumnSelect {
+    private ColumnSelect() {}
+
+    static <E> List<Map<String, Object>> select(EntityManager entityManager, Class<E> type,
+                                                Map<String, Function<Path<E>, Expression<?>>> columns,
+                                                Collection<String> fields, Specification<E> where,
+                                                BiFunction<Root<E>, CriteriaBuilder, List<Order>> orderBy,
+                                                int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<E> root = cq.from(type);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            Function<Path<E>, Expression<?>> column = columns.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("No column for field " + field);
+            }
+            selections.add(column.apply(root).alias(field));
+        }
+        cq.multiselect(selections);
+        if (where != null) {
+            cq.where(where.toPredicate(root, cq, cb));
+        }
+        cq.orderBy(orderBy.apply(root, cb));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(cq);
+        if (offset > 0) {
+            query.setFirstResult(offset);
+        }
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        List<Tuple> tuples = query.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
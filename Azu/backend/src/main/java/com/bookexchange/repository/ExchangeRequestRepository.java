@@ -1,14 +1,36 @@
 package com.bookexchange.repository;
 
 import com.bookexchange.entity.ExchangeRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ExchangeRequestRepository extends JpaRepository<ExchangeRequest, Long> {
+    @EntityGraph(attributePaths = {"requester", "owner", "requestedBook", "offeredBook"})
     List<ExchangeRequest> findByRequesterIdOrderByCreatedAtDesc(Long requesterId);
+
+    @EntityGraph(attributePaths = {"requester", "owner", "requestedBook", "offeredBook"})
     List<ExchangeRequest> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    @EntityGraph(attributePaths = {"requester", "owner", "requestedBook", "offeredBook"})
     List<ExchangeRequest> findByStatusOrderByCreatedAtDesc(ExchangeRequest.ExchangeStatus status);
+
+    @EntityGraph(attributePaths = {"requester", "owner", "requestedBook", "offeredBook"})
+    Optional<ExchangeRequest> findWithPartiesById(Long id);
+
+    // Sent and received alike.
+    @EntityGraph(attributePaths = {"requester", "owner", "requestedBook", "offeredBook"})
+    @Query("SELECT e FROM ExchangeRequest e WHERE (e.requester.id = :userId OR e.owner.id = :userId) " +
+           "AND e.status IN :statuses ORDER BY e.createdAt DESC")
+    List<ExchangeRequest> findByPartyAndStatusIn(@Param("userId") Long userId,
+                                                 @Param("statuses") Collection<ExchangeRequest.ExchangeStatus> statuses,
+                                                 Pageable pageable);
 }
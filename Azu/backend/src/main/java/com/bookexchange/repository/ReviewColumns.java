@@ -0,0 +1,12 @@
+package com.bookexchange.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ReviewColumns {
+    // The given ReviewView fields of a book's reviews, newest first, reading only their columns.
+    List<Map<String, Object>> findColumnsByBookId(Long bookId, Collection<String> fields);
+
+    List<Map<String, Object>> findColumnsByUserId(Long userId, Collection<String> fields);
+}
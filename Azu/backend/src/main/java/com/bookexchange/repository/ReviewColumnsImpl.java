@@ -0,0 +1,44 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.entity.Review;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Map.entry;
+
+public class ReviewColumnsImpl implements ReviewColumns {
+    private static final Map<String, Function<Path<Review>, Expression<?>>> COLUMNS = Map.ofEntries(
+            entry("id", review -> review.get("id")),
+            entry("userId", review -> review.get("user").get("id")),
+            entry("userName", review -> review.get("user").get("username")),
+            entry("bookId", review -> review.get("book").get("id")),
+            entry("rating", review -> review.get("rating")),
+            entry("comment", review -> review.get("comment")),
+            entry("createdAt", review -> review.get("createdAt")));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findColumnsByBookId(Long bookId, Collection<String> fields) {
+        return findColumns("book", bookId, fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findColumnsByUserId(Long userId, Collection<String> fields) {
+        return findColumns("user", userId, fields);
+    }
+
+    private List<Map<String, Object>> findColumns(String owner, Long ownerId, Collection<String> fields) {
+        return ColumnSelect.select(entityManager, Review.class, COLUMNS, fields,
+                (review, query, cb) -> cb.equal(review.get(owner).get("id"), ownerId),
+                (review, cb) -> List.of(cb.desc(review.get("createdAt"))), 0, 0);
+    }
+}
@@ -1,18 +1,17 @@
 package com.bookexchange.repository;
 
 import com.bookexchange.entity.Review;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewColumns {
+    @EntityGraph(attributePaths = "user")
     List<Review> findByBookIdOrderByCreatedAtDesc(Long bookId);
+
+    @EntityGraph(attributePaths = "user")
     List<Review> findByUserIdOrderByCreatedAtDesc(Long userId);
-    
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.book.id = :bookId")
-    Double findAverageRatingByBookId(@Param("bookId") Long bookId);
 }
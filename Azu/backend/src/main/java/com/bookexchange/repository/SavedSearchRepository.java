@@ -0,0 +1,32 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.entity.SavedSearch;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.bookexchange.repository.BookRepository.STREAM_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM SavedSearch s WHERE s.id = :id AND s.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM SavedSearch s")
+    Stream<SavedSearch> streamAll();
+}
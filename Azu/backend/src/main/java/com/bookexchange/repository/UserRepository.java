@@ -1,15 +1,30 @@
 package com.bookexchange.repository;
 
 import com.bookexchange.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Sign-in and profile lookups; cached results are dropped whenever the users table changes.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    // Holds the user's row until commit, so per-user caps checked by counting cannot be raced past.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<User> findWithLockById(Long id);
+
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
 }
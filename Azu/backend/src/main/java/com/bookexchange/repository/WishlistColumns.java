@@ -0,0 +1,14 @@
+package com.bookexchange.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface WishlistColumns {
+    /**
+     * A user's wishlist, most recently added first, as one map per item holding
+     * {@code itemId}, {@code addedAt} and the given fields of the book (see
+     * {@link BookColumns}), reading only their columns.
+     */
+    List<Map<String, Object>> findColumnsByUserId(Long userId, Collection<String> bookFields);
+}
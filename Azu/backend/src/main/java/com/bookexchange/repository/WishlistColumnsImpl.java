@@ -0,0 +1,38 @@
+package com.bookexchange.repository;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.WishlistItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class WishlistColumnsImpl implements WishlistColumns {
+    private static final Map<String, Function<Path<WishlistItem>, Expression<?>>> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("itemId", item -> item.get("id"));
+        COLUMNS.put("addedAt", item -> item.get("addedAt"));
+        BookColumnsImpl.COLUMNS.forEach((field, column) ->
+                COLUMNS.put(field, item -> column.apply(item.<Book>get("book"))));
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findColumnsByUserId(Long userId, Collection<String> bookFields) {
+        List<String> fields = new ArrayList<>(List.of("itemId", "addedAt"));
+        fields.addAll(bookFields);
+        return ColumnSelect.select(entityManager, WishlistItem.class, COLUMNS, fields,
+                (item, query, cb) -> cb.equal(item.get("user").get("id"), userId),
+                (item, cb) -> List.of(cb.desc(item.get("addedAt"))), 0, 0);
+    }
+}
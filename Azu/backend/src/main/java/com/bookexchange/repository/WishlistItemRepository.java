@@ -1,15 +1,39 @@
 package com.bookexchange.repository;
 
 import com.bookexchange.entity.WishlistItem;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.bookexchange.repository.BookRepository.STREAM_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface WishlistItemRepository extends JpaRepository<WishlistItem, Long> {
+public interface WishlistItemRepository extends JpaRepository<WishlistItem, Long>, WishlistColumns {
+    @EntityGraph(attributePaths = {"book", "book.seller"})
     List<WishlistItem> findByUserIdOrderByAddedAtDesc(Long userId);
     Optional<WishlistItem> findByUserIdAndBookId(Long userId, Long bookId);
     void deleteByUserIdAndBookId(Long userId, Long bookId);
+
+    @Query("SELECT w.user.id FROM WishlistItem w WHERE w.book.id = :bookId")
+    List<Long> findUserIdsByBookId(@Param("bookId") Long bookId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT w.user.id AS userId, w.book.id AS bookId FROM WishlistItem w")
+    Stream<Wish> streamWishes();
+
+    interface Wish {
+        Long getUserId();
+        Long getBookId();
+    }
 }
@@ -0,0 +1,125 @@
+package com.bookexchange.search;
+
+import com.bookexchange.dto.FacetCounts;
+import com.bookexchange.entity.Book;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class BookFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(BookFacetIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final FacetIndex index = new FacetIndex();
+    private final List<BigDecimal> priceBounds;
+
+    public BookFacetIndex(@Value("${app.facets.price-bounds:10,25,50,100}") List<BigDecimal> priceBounds) {
+        this.priceBounds = priceBounds.stream().sorted().toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        index.clear();
+        try (Stream<BookRepository.BookAttributes> books = bookRepository.streamAttributes()) {
+            books.forEach(book -> index.put(docId(book.getId()), Boolean.TRUE.equals(book.getIsAvailable()),
+                    attributes(book.getGenre(), book.getCondition(), book.getLanguage(), book.getPrice(),
+                            book.getForSale(), book.getForExchange())));
+        }
+        logger.info("Indexed facets of {} available books in {} ms", index.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            index.remove(docId(event.getBookId()));
+        } else {
+            index(event.getBook());
+        }
+    }
+
+    public void index(Book book) {
+        index.put(docId(book.getId()), Boolean.TRUE.equals(book.getIsAvailable()),
+                attributes(book.getGenre(), book.getCondition(), book.getLanguage(), book.getPrice(),
+                        book.getForSale(), book.getForExchange()));
+    }
+
+    /**
+     * Facet counts over available books narrowed by the given request parameters.
+     * Each facet parameter takes one or more values, repeated or comma-separated.
+     */
+    public FacetCounts counts(MultiValueMap<String, String> params) {
+        Map<FacetIndex.Facet, List<String>> filters = new EnumMap<>(FacetIndex.Facet.class);
+        for (FacetIndex.Facet facet : FacetIndex.Facet.values()) {
+            List<String> values = params.get(facet.getKey());
+            if (values != null) {
+                filters.put(facet, values.stream()
+                        .flatMap(value -> Arrays.stream(value.split(",")))
+                        .map(String::trim)
+                        .filter(value -> !value.isEmpty())
+                        .toList());
+            }
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        index.counts(filters).forEach((facet, counts) -> facets.put(facet.getKey(), counts));
+        return new FacetCounts((long) index.match(filters).getCardinality(), facets);
+    }
+
+    public String priceBucket(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : priceBounds) {
+            if (price.compareTo(bound) < 0) {
+                return label(lower) + "-" + label(bound);
+            }
+            lower = bound;
+        }
+        return label(lower) + "+";
+    }
+
+    private Map<FacetIndex.Facet, String> attributes(String genre, Book.BookCondition condition, String language,
+                                                     BigDecimal price, Boolean forSale, Boolean forExchange) {
+        Map<FacetIndex.Facet, String> attributes = new EnumMap<>(FacetIndex.Facet.class);
+        attributes.put(FacetIndex.Facet.GENRE, genre);
+        attributes.put(FacetIndex.Facet.CONDITION, condition != null ? condition.name() : null);
+        attributes.put(FacetIndex.Facet.LANGUAGE, language);
+        attributes.put(FacetIndex.Facet.PRICE, priceBucket(price));
+        attributes.put(FacetIndex.Facet.FOR_SALE, String.valueOf(Boolean.TRUE.equals(forSale)));
+        attributes.put(FacetIndex.Facet.FOR_EXCHANGE, String.valueOf(Boolean.TRUE.equals(forExchange)));
+        return attributes;
+    }
+
+    private static String label(BigDecimal amount) {
+        return amount.stripTrailingZeros().toPlainString();
+    }
+
+    // Bitmaps hold 32-bit ids; the catalog is far from that limit.
+    private static int docId(Long id) {
+        return Math.toIntExact(id);
+    }
+}
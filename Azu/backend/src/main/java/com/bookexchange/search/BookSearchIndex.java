@@ -0,0 +1,79 @@
+package com.bookexchange.search;
+
+import com.bookexchange.dto.BookCursor;
+import com.bookexchange.entity.Book;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class BookSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        index.clear();
+        BookCursor first = BookCursor.FIRST;
+        try (Stream<Book> books = bookRepository.streamAvailableAfter(first.getCreatedAt(), first.getId())) {
+            books.forEach(book -> {
+                index(book);
+                entityManager.detach(book);
+            });
+        }
+        logger.info("Indexed {} books for search in {} ms", index.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else {
+            index(event.getBook());
+        }
+    }
+
+    public void index(Book book) {
+        if (!Boolean.TRUE.equals(book.getIsAvailable())) {
+            index.remove(book.getId());
+            return;
+        }
+
+        Map<InvertedIndex.Field, String> fields = new EnumMap<>(InvertedIndex.Field.class);
+        fields.put(InvertedIndex.Field.TITLE, book.getTitle());
+        fields.put(InvertedIndex.Field.AUTHOR, book.getAuthor());
+        fields.put(InvertedIndex.Field.ISBN, book.getIsbn());
+        fields.put(InvertedIndex.Field.DESCRIPTION, book.getDescription());
+        index.put(book.getId(), fields);
+    }
+
+    public void remove(Long bookId) {
+        index.remove(bookId);
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bookexchange.search;
+
+import com.bookexchange.dto.SuggestionView;
+import com.bookexchange.entity.Book;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class BookSuggestIndex {
+    private static final Logger logger = LoggerFactory.getLogger(BookSuggestIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final SuggestionIndex index;
+    private final int maxResults;
+
+    public BookSuggestIndex(@Value("${app.suggest.max-results:10}") int maxResults) {
+        this.maxResults = maxResults;
+        // Cached lists are kept deeper than any response so they are rarely invalidated.
+        this.index = new SuggestionIndex(maxResults * 2);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        index.clear();
+        try (Stream<BookRepository.BookLabels> books = bookRepository.streamAvailableLabels()) {
+            books.forEach(book -> index.put(book.getId(), fields(book.getTitle(), book.getAuthor(), book.getGenre())));
+        }
+        logger.info("Indexed {} phrases from {} books for suggestions in {} ms",
+                index.phraseCount(), index.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            index.remove(event.getBookId());
+        } else {
+            index(event.getBook());
+        }
+    }
+
+    public void index(Book book) {
+        if (!Boolean.TRUE.equals(book.getIsAvailable())) {
+            index.remove(book.getId());
+            return;
+        }
+        index.put(book.getId(), fields(book.getTitle(), book.getAuthor(), book.getGenre()));
+    }
+
+    public List<SuggestionView> suggest(String prefix, Integer limit) {
+        int size = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        return index.suggest(prefix, size).stream()
+                .map(s -> new SuggestionView(s.getText(), s.getKind().name().toLowerCase(Locale.ROOT), s.getWeight()))
+                .toList();
+    }
+
+    private static Map<SuggestionIndex.Kind, String> fields(String title, String author, String genre) {
+        Map<SuggestionIndex.Kind, String> fields = new EnumMap<>(SuggestionIndex.Kind.class);
+        fields.put(SuggestionIndex.Kind.TITLE, title);
+        fields.put(SuggestionIndex.Kind.AUTHOR, author);
+        fields.put(SuggestionIndex.Kind.GENRE, genre);
+        return fields;
+    }
+}
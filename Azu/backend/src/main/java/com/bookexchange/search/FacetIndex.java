@@ -0,0 +1,157 @@
+package com.bookexchange.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory facet index: one compressed bitmap of document ids per
+ * facet value, plus a bitmap of available documents. Counts are bitmap
+ * intersections, so they cost microseconds rather than a GROUP BY per facet.
+ */
+public class FacetIndex {
+    public enum Facet {
+        GENRE("genre"), CONDITION("condition"), LANGUAGE("language"), PRICE("price"),
+        FOR_SALE("forSale"), FOR_EXCHANGE("forExchange");
+
+        private final String key;
+
+        Facet(String key) {
+            this.key = key;
+        }
+
+        // Request parameter and response field name.
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Map<Facet, Map<String, RoaringBitmap>> values = new EnumMap<>(Facet.class);
+    private final RoaringBitmap available = new RoaringBitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            values.put(facet, new HashMap<>());
+        }
+    }
+
+    // Null values leave the document out of that facet.
+    public void put(int docId, boolean isAvailable, Map<Facet, String> attributes) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            for (Map.Entry<Facet, String> attribute : attributes.entrySet()) {
+                if (attribute.getValue() != null) {
+                    values.get(attribute.getKey())
+                            .computeIfAbsent(attribute.getValue(), k -> new RoaringBitmap())
+                            .add(docId);
+                }
+            }
+            if (isAvailable) {
+                available.add(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            values.values().forEach(Map::clear);
+            available.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return available.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Available documents matching every filter. Values selected within one facet
+     * are ORed; facets are ANDed.
+     */
+    public RoaringBitmap match(Map<Facet, ? extends Collection<String>> filters) {
+        lock.readLock().lock();
+        try {
+            return matchLocked(filters, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per-value counts for each facet. A facet's own selection is left out when
+     * counting it, so the counts show what picking another value would return.
+     * Values are ordered by descending count.
+     */
+    public Map<Facet, Map<String, Long>> counts(Map<Facet, ? extends Collection<String>> filters) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, Map<String, Long>> counts = new EnumMap<>(Facet.class);
+            RoaringBitmap all = matchLocked(filters, null);
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap base = filters.containsKey(facet) ? matchLocked(filters, facet) : all;
+                List<Map.Entry<String, Long>> entries = values.get(facet).entrySet().stream()
+                        .map(value -> Map.entry(value.getKey(), (long) RoaringBitmap.andCardinality(base, value.getValue())))
+                        .filter(entry -> entry.getValue() > 0)
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                        .toList();
+                Map<String, Long> ordered = new LinkedHashMap<>();
+                entries.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+                counts.put(facet, ordered);
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap matchLocked(Map<Facet, ? extends Collection<String>> filters, Facet skip) {
+        RoaringBitmap result = available.clone();
+        for (Map.Entry<Facet, ? extends Collection<String>> filter : filters.entrySet()) {
+            if (filter.getKey() == skip || filter.getValue().isEmpty()) {
+                continue;
+            }
+            Map<String, RoaringBitmap> byValue = values.get(filter.getKey());
+            RoaringBitmap selected = RoaringBitmap.or(filter.getValue().stream()
+                    .map(byValue::get)
+                    .filter(Objects::nonNull)
+                    .iterator());
+            result.and(selected);
+        }
+        return result;
+    }
+
+    // Facets hold few distinct values, so probing each bitmap is cheaper than remembering every document's values.
+    private void removeLocked(int docId) {
+        for (Map<String, RoaringBitmap> byValue : values.values()) {
+            byValue.values().removeIf(bitmap -> bitmap.checkedRemove(docId) && bitmap.isEmpty());
+        }
+        available.remove(docId);
+    }
+}
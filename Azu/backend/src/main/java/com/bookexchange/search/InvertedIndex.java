@@ -0,0 +1,244 @@
+package com.bookexchange.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe in-memory inverted index ranked with BM25 over field-weighted term
+ * frequencies. The last query token is prefix-expanded (search-as-you-type), and
+ * tokens with no exact or prefix match fall back to bounded edit-distance matching.
+ */
+public class InvertedIndex {
+    public enum Field {
+        TITLE(3.0f), AUTHOR(2.0f), ISBN(4.0f), DESCRIPTION(1.0f);
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_PENALTY = 0.8;
+    private static final double FUZZY_PENALTY = 0.5;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final Pattern ISBN_QUERY = Pattern.compile("[0-9][0-9xX\\- ]*");
+
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> docTerms = new HashMap<>();
+    private final Map<Long, Float> docLengths = new HashMap<>();
+    private double totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long docId, Map<Field, String> fields) {
+        Map<String, Float> weighted = new HashMap<>();
+        float length = 0;
+        for (Map.Entry<Field, String> field : fields.entrySet()) {
+            List<String> tokens = field.getKey() == Field.ISBN
+                    ? nonNullList(Tokenizer.normalizeIsbn(field.getValue()))
+                    : Tokenizer.tokenize(field.getValue());
+            float weight = field.getKey().weight;
+            for (String token : tokens) {
+                weighted.merge(token, weight, Float::sum);
+            }
+            length += weight * tokens.size();
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            for (Map.Entry<String, Float> term : weighted.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(docId, term.getValue());
+            }
+            docTerms.put(docId, Set.copyOf(weighted.keySet()));
+            docLengths.put(docId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docTerms.clear();
+            docLengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> tokens = ISBN_QUERY.matcher(query).matches()
+                ? nonNullList(Tokenizer.normalizeIsbn(query))
+                : Tokenizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new SearchHits(Collections.emptyList(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = docLengths.size();
+            double avgLength = docCount == 0 ? 1 : totalLength / docCount;
+            for (int i = 0; i < tokens.size(); i++) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Double> expansion : expand(tokens.get(i), i == tokens.size() - 1).entrySet()) {
+                    Map<Long, Float> docs = postings.get(expansion.getKey());
+                    double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                        double tf = posting.getValue();
+                        double norm = K1 * (1 - B + B * docLengths.get(posting.getKey()) / avgLength);
+                        double score = expansion.getValue() * idf * tf * (K1 + 1) / (tf + norm);
+                        tokenScores.merge(posting.getKey(), score, Math::max);
+                    }
+                }
+                tokenScores.forEach((docId, score) -> scores.merge(docId, score, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new SearchHits(topK(scores, offset, limit), scores.size());
+    }
+
+    private Map<String, Double> expand(String token, boolean lastToken) {
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(token)) {
+            expansions.put(token, 1.0);
+        }
+
+        if (lastToken || expansions.isEmpty()) {
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                expansions.put(term, PREFIX_PENALTY);
+            }
+        }
+
+        if (expansions.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() <= 7 ? 1 : 2;
+            // Restricting candidates to the same leading character keeps this off the full dictionary.
+            String first = token.substring(0, 1);
+            SortedMap<String, Map<Long, Float>> candidates = postings.subMap(first, first + Character.MAX_VALUE);
+            for (String term : candidates.keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                if (Math.abs(term.length() - token.length()) <= maxEdits && withinEditDistance(token, term, maxEdits)) {
+                    expansions.put(term, FUZZY_PENALTY);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private void removeLocked(long docId) {
+        Set<String> terms = docTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> docs = postings.get(term);
+            docs.remove(docId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= docLengths.remove(docId);
+    }
+
+    private static List<Long> topK(Map<Long, Double> scores, int offset, int limit) {
+        int k = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        // Ties go to the higher id, i.e. the more recently listed book.
+        Comparator<Map.Entry<Long, Double>> order = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Math.min(k, scores.size()) + 1, order);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return offset >= ranked.size() ? Collections.emptyList() : ranked.subList(offset, ranked.size());
+    }
+
+    // Optimal string alignment distance, so a swapped pair of letters costs a single edit.
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    private static List<String> nonNullList(String value) {
+        List<String> list = new ArrayList<>(1);
+        if (value != null) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,154 @@
+package com.bookexchange.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe reverse index over stored queries: instead of running every query
+ * against a new document, the document is run against the queries. Each query is
+ * filed under one key it requires (its longest term, else its genre), so a
+ * document only has to look up its own terms and genre to collect the candidate
+ * queries, and only those are checked in full.
+ */
+public class QueryPercolator {
+    private final Map<Long, StoredQuery> queries = new HashMap<>();
+    private final Map<String, Set<Long>> byTerm = new HashMap<>();
+    private final Map<String, Set<Long>> byGenre = new HashMap<>();
+    private final Set<Long> unkeyed = new HashSet<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long queryId, long ownerId, String terms, String genre, BigDecimal maxPrice, String condition) {
+        StoredQuery query = new StoredQuery(queryId, ownerId, Set.copyOf(Tokenizer.tokenize(terms)),
+                genre == null || genre.isBlank() ? null : genre.trim().toLowerCase(Locale.ROOT), maxPrice, condition);
+        lock.writeLock().lock();
+        try {
+            removeLocked(queryId);
+            queries.put(queryId, query);
+            if (query.key == null) {
+                unkeyed.add(queryId);
+            } else {
+                indexOf(query).computeIfAbsent(query.key, k -> new HashSet<>()).add(queryId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long queryId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(queryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            queries.clear();
+            byTerm.clear();
+            byGenre.clear();
+            unkeyed.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return queries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queries the document satisfies, as query id to owner id. The document's
+     * text is tokenized the same way as the query terms.
+     */
+    public Map<Long, Long> match(String text, String genre, BigDecimal price, String condition) {
+        Set<String> tokens = new HashSet<>(Tokenizer.tokenize(text));
+        String normalizedGenre = genre == null ? null : genre.trim().toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>(unkeyed);
+            for (String token : tokens) {
+                candidates.addAll(byTerm.getOrDefault(token, Set.of()));
+            }
+            if (normalizedGenre != null) {
+                candidates.addAll(byGenre.getOrDefault(normalizedGenre, Set.of()));
+            }
+
+            Map<Long, Long> matches = new HashMap<>();
+            for (Long candidate : candidates) {
+                StoredQuery query = queries.get(candidate);
+                if (query.matches(tokens, normalizedGenre, price, condition)) {
+                    matches.put(query.id, query.ownerId);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Set<Long>> indexOf(StoredQuery query) {
+        return query.terms.isEmpty() ? byGenre : byTerm;
+    }
+
+    private void removeLocked(long queryId) {
+        StoredQuery query = queries.remove(queryId);
+        if (query == null) {
+            return;
+        }
+        if (query.key == null) {
+            unkeyed.remove(queryId);
+            return;
+        }
+        Map<String, Set<Long>> index = indexOf(query);
+        Set<Long> bucket = index.get(query.key);
+        bucket.remove(queryId);
+        if (bucket.isEmpty()) {
+            index.remove(query.key);
+        }
+    }
+
+    private static final class StoredQuery {
+        private final long id;
+        private final long ownerId;
+        private final Set<String> terms;
+        private final String genre;
+        private final BigDecimal maxPrice;
+        private final String condition;
+        // The longest term, else the genre; null for queries on price or condition only.
+        private final String key;
+
+        private StoredQuery(long id, long ownerId, Set<String> terms, String genre, BigDecimal maxPrice, String condition) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.terms = terms;
+            this.genre = genre;
+            this.maxPrice = maxPrice;
+            this.condition = condition;
+            this.key = terms.isEmpty() ? genre : terms.stream().max(Comparator.comparingInt(String::length)).get();
+        }
+
+        private boolean matches(Set<String> tokens, String documentGenre, BigDecimal price, String documentCondition) {
+            return tokens.containsAll(terms)
+                    && (genre == null || genre.equals(documentGenre))
+                    && (maxPrice == null || price != null && price.compareTo(maxPrice) <= 0)
+                    && (condition == null || condition.equals(documentCondition));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bookexchange.search;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.SavedSearch;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.repository.SavedSearchRepository;
+import com.bookexchange.service.NotificationWriter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class SavedSearchPercolator {
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchPercolator.class);
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final QueryPercolator percolator = new QueryPercolator();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        percolator.clear();
+        try (Stream<SavedSearch> searches = savedSearchRepository.streamAll()) {
+            searches.forEach(search -> {
+                register(search);
+                entityManager.detach(search);
+            });
+        }
+        logger.info("Loaded {} saved searches in {} ms", percolator.size(), System.currentTimeMillis() - started);
+    }
+
+    public void register(SavedSearch search) {
+        percolator.put(search.getId(), search.getUser().getId(), search.getTerms(), search.getGenre(),
+                search.getMaxPrice(), search.getCondition() != null ? search.getCondition().name() : null);
+    }
+
+    public void unregister(Long savedSearchId) {
+        percolator.remove(savedSearchId);
+    }
+
+    // Updates are matched again too; the inbox ignores a book a search already reported.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (event.getType() == BookChangedEvent.Type.DELETED || !Boolean.TRUE.equals(book.getIsAvailable())) {
+            return;
+        }
+
+        String text = String.join(" ", nullToEmpty(book.getTitle()), nullToEmpty(book.getAuthor()),
+                nullToEmpty(book.getDescription()));
+        Map<Long, Long> matches = percolator.match(text, book.getGenre(), book.getPrice(),
+                book.getCondition() != null ? book.getCondition().name() : null);
+        Long sellerId = book.getSeller().getId();
+        matches.forEach((searchId, userId) -> {
+            if (!userId.equals(sellerId)) {
+                notificationWriter.enqueue(userId, searchId, book.getId(), book.getTitle());
+            }
+        });
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
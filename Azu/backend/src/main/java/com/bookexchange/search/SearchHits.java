@@ -0,0 +1,17 @@
+package com.bookexchange.search;
+
+import java.util.List;
+
+public class SearchHits {
+    private final List<Long> ids;
+    private final long total;
+
+    public SearchHits(List<Long> ids, long total) {
+        this.ids = ids;
+        this.total = total;
+    }
+
+    public List<Long> getIds() { return ids; }
+
+    public long getTotal() { return total; }
+}
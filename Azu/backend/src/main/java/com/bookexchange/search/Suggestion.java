@@ -0,0 +1,19 @@
+package com.bookexchange.search;
+
+public class Suggestion {
+    private final String text;
+    private final SuggestionIndex.Kind kind;
+    private final int weight;
+
+    public Suggestion(String text, SuggestionIndex.Kind kind, int weight) {
+        this.text = text;
+        this.kind = kind;
+        this.weight = weight;
+    }
+
+    public String getText() { return text; }
+
+    public SuggestionIndex.Kind getKind() { return kind; }
+
+    public int getWeight() { return weight; }
+}
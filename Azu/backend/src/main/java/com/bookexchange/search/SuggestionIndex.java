@@ -0,0 +1,333 @@
+package com.bookexchange.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe typeahead index over short phrases (titles, authors, genres), each
+ * weighted by the number of documents carrying it. A phrase completes from the start
+ * of any of its first few words. Keys are kept sorted so a prefix is a range scan;
+ * once a prefix's range proves large, its top completions are cached and adjusted in
+ * place as weights change, so short, popular prefixes are not rescanned.
+ */
+public class SuggestionIndex {
+    public enum Kind {
+        TITLE, AUTHOR, GENRE
+    }
+
+    private static final int MAX_WORD_STARTS = 6;
+    private static final int MAX_KEY_LENGTH = 32;
+    private static final int CACHE_THRESHOLD = 256;
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Phrase> RANK = Comparator.<Phrase>comparingInt(p -> -p.weight)
+            .thenComparing(p -> p.key)
+            .thenComparing(p -> p.kind);
+
+    private final TreeMap<String, Phrase> keys = new TreeMap<>();
+    private final Map<Kind, Map<String, Phrase>> phrases = new EnumMap<>(Kind.class);
+    private final Map<Long, List<Phrase>> docPhrases = new HashMap<>();
+    private final Map<String, Top> cache = new ConcurrentHashMap<>();
+    private final int cacheSize;
+    private volatile int longestCachedPrefix;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SuggestionIndex(int cacheSize) {
+        this.cacheSize = cacheSize;
+        for (Kind kind : Kind.values()) {
+            phrases.put(kind, new HashMap<>());
+        }
+    }
+
+    public void put(long docId, Map<Kind, String> fields) {
+        Map<Kind, String> normalized = new EnumMap<>(Kind.class);
+        fields.forEach((kind, text) -> {
+            String key = normalize(text, false);
+            if (!key.isEmpty()) {
+                normalized.put(kind, key);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            if (unchanged(docPhrases.get(docId), normalized)) {
+                return;
+            }
+            removeLocked(docId);
+            List<Phrase> carried = new ArrayList<>(normalized.size());
+            normalized.forEach((kind, key) -> {
+                Phrase phrase = phrases.get(kind).get(key);
+                if (phrase == null) {
+                    phrase = new Phrase(kind, key, fields.get(kind).trim());
+                    phrases.get(kind).put(key, phrase);
+                    for (String suffix : suffixes(key)) {
+                        keys.put(suffix + KEY_SEPARATOR + kind.ordinal() + key, phrase);
+                    }
+                }
+                phrase.weight++;
+                reweigh(phrase, phrase.weight - 1);
+                carried.add(phrase);
+            });
+            docPhrases.put(docId, carried);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            keys.clear();
+            phrases.values().forEach(Map::clear);
+            docPhrases.clear();
+            cache.clear();
+            longestCachedPrefix = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docPhrases.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int phraseCount() {
+        lock.readLock().lock();
+        try {
+            return phrases.values().stream().mapToInt(Map::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String text, int limit) {
+        String prefix = normalize(text, true);
+        if (prefix.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int size = Math.min(limit, cacheSize);
+
+        lock.readLock().lock();
+        try {
+            Top top = cache.get(prefix);
+            if (top == null) {
+                top = scan(prefix);
+            }
+            List<Suggestion> suggestions = new ArrayList<>(size);
+            for (Phrase phrase : top.phrases) {
+                if (suggestions.size() == size) {
+                    break;
+                }
+                suggestions.add(new Suggestion(phrase.text, phrase.kind, phrase.weight));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Runs under the read lock; only writers mutate cached entries, so publishing a new one is safe.
+    private Top scan(String prefix) {
+        boolean truncated = prefix.length() > MAX_KEY_LENGTH;
+        String from = truncated ? prefix.substring(0, MAX_KEY_LENGTH) : prefix;
+
+        PriorityQueue<Phrase> best = new PriorityQueue<>(RANK.reversed());
+        Set<Phrase> seen = new HashSet<>();
+        int scanned = 0;
+        for (Phrase phrase : keys.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            scanned++;
+            if (!seen.add(phrase) || truncated && !startsWithWord(phrase.key, prefix)) {
+                continue;
+            }
+            best.add(phrase);
+            if (best.size() > cacheSize + 1) {
+                best.poll();
+            }
+        }
+
+        List<Phrase> ranked = new ArrayList<>(best);
+        ranked.sort(RANK);
+        Top top = new Top();
+        if (ranked.size() > cacheSize) {
+            top.outsideMax = ranked.remove(cacheSize).weight;
+        }
+        top.phrases.addAll(ranked);
+        if (scanned > CACHE_THRESHOLD && !truncated) {
+            cache.put(prefix, top);
+            synchronized (cache) {
+                longestCachedPrefix = Math.max(longestCachedPrefix, prefix.length());
+            }
+        }
+        return top;
+    }
+
+    private void removeLocked(long docId) {
+        List<Phrase> carried = docPhrases.remove(docId);
+        if (carried == null) {
+            return;
+        }
+        for (Phrase phrase : carried) {
+            phrase.weight--;
+            if (phrase.weight == 0) {
+                phrases.get(phrase.kind).remove(phrase.key);
+                for (String suffix : suffixes(phrase.key)) {
+                    keys.remove(suffix + KEY_SEPARATOR + phrase.kind.ordinal() + phrase.key);
+                }
+            }
+            reweigh(phrase, phrase.weight + 1);
+        }
+    }
+
+    /**
+     * Adjusts every cached prefix the phrase completes. A cached list stays exact as
+     * long as nothing outside it can outrank what is inside; when a listed phrase
+     * drops below the best unlisted weight, the entry is discarded and rebuilt on the
+     * next lookup.
+     */
+    private void reweigh(Phrase phrase, int previousWeight) {
+        if (cache.isEmpty()) {
+            return;
+        }
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String suffix : suffixes(phrase.key)) {
+            for (int length = 1; length <= Math.min(suffix.length(), longestCachedPrefix); length++) {
+                prefixes.add(suffix.substring(0, length));
+            }
+        }
+        for (String prefix : prefixes) {
+            Top top = cache.get(prefix);
+            if (top == null) {
+                continue;
+            }
+            int at = top.phrases.indexOf(phrase);
+            if (at >= 0) {
+                top.phrases.remove(at);
+                if (phrase.weight < top.outsideMax) {
+                    cache.remove(prefix);
+                } else if (phrase.weight > 0) {
+                    insert(top.phrases, phrase);
+                }
+            } else if (phrase.weight > previousWeight) {
+                if (top.phrases.size() < cacheSize) {
+                    insert(top.phrases, phrase);
+                } else if (RANK.compare(phrase, top.phrases.get(cacheSize - 1)) < 0) {
+                    insert(top.phrases, phrase);
+                    top.outsideMax = Math.max(top.outsideMax, top.phrases.remove(cacheSize).weight);
+                } else {
+                    top.outsideMax = Math.max(top.outsideMax, phrase.weight);
+                }
+            }
+        }
+    }
+
+    private static boolean unchanged(List<Phrase> carried, Map<Kind, String> normalized) {
+        if (carried == null || carried.size() != normalized.size()) {
+            return false;
+        }
+        for (Phrase phrase : carried) {
+            if (!phrase.key.equals(normalized.get(phrase.kind))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void insert(List<Phrase> ranked, Phrase phrase) {
+        int at = Collections.binarySearch(ranked, phrase, RANK);
+        ranked.add(at < 0 ? -at - 1 : at, phrase);
+    }
+
+    private static List<String> suffixes(String key) {
+        List<String> suffixes = new ArrayList<>();
+        int start = 0;
+        while (start >= 0 && suffixes.size() < MAX_WORD_STARTS) {
+            int end = key.indexOf(' ', start);
+            String word = end < 0 ? key.substring(start) : key.substring(start, end);
+            if (start == 0 || !Tokenizer.isStopWord(word)) {
+                String suffix = key.substring(start);
+                suffixes.add(suffix.length() > MAX_KEY_LENGTH ? suffix.substring(0, MAX_KEY_LENGTH) : suffix);
+            }
+            start = end < 0 ? -1 : end + 1;
+        }
+        return suffixes;
+    }
+
+    private static boolean startsWithWord(String key, String prefix) {
+        return key.startsWith(prefix) || key.contains(" " + prefix);
+    }
+
+    // Lower-cased, accents stripped, punctuation collapsed to single spaces. A query keeps
+    // one trailing space so "lord " completes "lord of the rings" but not "lordship".
+    static String normalize(String text, boolean query) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        if (query && space && normalized.length() > 0) {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private static final class Phrase {
+        private final Kind kind;
+        private final String key;
+        private final String text;
+        private int weight;
+
+        private Phrase(Kind kind, String key, String text) {
+            this.kind = kind;
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    private static final class Top {
+        private final List<Phrase> phrases = new ArrayList<>();
+        private int outsideMax;
+    }
+}
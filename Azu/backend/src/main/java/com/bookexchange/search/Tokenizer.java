@@ -0,0 +1,55 @@
+package com.bookexchange.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class Tokenizer {
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private Tokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letterOrDigit = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    public static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    // ISBNs are searched as one term whatever hyphenation the seller typed.
+    public static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(isbn.length());
+        for (char c : isbn.toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                digits.append(Character.toLowerCase(c));
+            }
+        }
+        return digits.length() == 0 ? null : digits.toString();
+    }
+}
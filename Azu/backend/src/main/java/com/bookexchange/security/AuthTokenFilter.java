@@ -0,0 +1,135 @@
+package com.bookexchange.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates each request from its bearer token alone. A token is verified
+ * once; the principal built from its claims is then kept in a small bounded
+ * cache until the token expires, so repeat requests skip the HMAC check too.
+ */
+public class AuthTokenFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtils jwtUtils;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Timer acceptedVerifications;
+    private final Timer rejectedVerifications;
+
+    public AuthTokenFilter(JwtUtils jwtUtils, long maxSize, Duration ttl, MeterRegistry registry) {
+        this.jwtUtils = jwtUtils;
+        this.acceptedVerifications = verificationTimer(registry, "accepted");
+        this.rejectedVerifications = verificationTimer(registry, "rejected");
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = parseJwt(request);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserPrincipal principal = authenticate(token);
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    public UserPrincipal authenticate(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached.principal;
+        }
+
+        long started = System.nanoTime();
+        Claims claims = jwtUtils.parseClaims(token);
+        if (claims == null || claims.get(JwtUtils.CLAIM_USER_ID) == null) {
+            rejectedVerifications.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        acceptedVerifications.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        UserPrincipal principal = UserPrincipal.fromClaims(claims);
+        verifiedTokens.put(token, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        return principal;
+    }
+
+    public Cache<String, VerifiedToken> getVerifiedTokens() { return verifiedTokens; }
+
+    // Cache hits are not timed; their rate is in the jwt.verified-tokens cache metrics.
+    private static Timer verificationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("auth.jwt.verification")
+                .description("Signature and expiry checks of bearer tokens not found in the verified-token cache")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private String parseJwt(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)) {
+            return header.substring(BEARER.length());
+        }
+        return null;
+    }
+
+    public static final class VerifiedToken {
+        private final UserPrincipal principal;
+        private final long expiresAtMillis;
+
+        VerifiedToken(UserPrincipal principal, long expiresAtMillis) {
+            this.principal = principal;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    // A cached principal must never outlive the token it was verified from.
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        private final long maxNanos;
+
+        UntilTokenExpiry(long maxNanos) {
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            long remaining = Duration.ofMillis(verified.expiresAtMillis - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(maxNanos, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.bookexchange.security;
 
 import com.bookexchange.entity.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -38,6 +39,27 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    /**
+     * Rebuilds the principal from verified token claims, with no database round
+     * trip. There is no password on a principal created this way.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                : roles.stream()
+                        .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                        .toList();
+
+        return new UserPrincipal(
+            claims.get(JwtUtils.CLAIM_USER_ID, Long.class),
+            claims.getSubject(),
+            claims.get(JwtUtils.CLAIM_EMAIL, String.class),
+            null,
+            authorities
+        );
+    }
+
     public Long getId() {
         return id;
     }
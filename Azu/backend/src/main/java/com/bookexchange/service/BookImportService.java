@@ -0,0 +1,295 @@
+package com.bookexchange.service;
+
+import com.bookexchange.dto.BookImportReport;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.User;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV or NDJSON uploads into the catalog. Rows are parsed and validated
+ * one at a time and written in JDBC batches, each batch in its own transaction,
+ * so neither the upload nor the persistence context is ever held in memory whole.
+ */
+@Service
+public class BookImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${app.import.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BookImportReport importCsv(InputStream in, Long sellerId, Integer batchSize) throws IOException {
+        CsvReader csv = new CsvReader(reader(in));
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new BadRequestException("CSV upload has no header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        return run(() -> {
+            long line = csv.getLineNumber();
+            List<String> record = csv.readRecord();
+            if (record == null) {
+                return null;
+            }
+            try {
+                return new Row(line, fromCsv(record, columns), null);
+            } catch (RuntimeException e) {
+                return new Row(line, null, "Unparseable row: " + e.getMessage());
+            }
+        }, sellerId, batchSize);
+    }
+
+    public BookImportReport importNdjson(InputStream in, Long sellerId, Integer batchSize) throws IOException {
+        BufferedReader lines = reader(in);
+        long[] lineNumber = {0};
+
+        return run(() -> {
+            String line;
+            do {
+                line = lines.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new Row(lineNumber[0], objectMapper.readValue(line, Book.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber[0], null, "Unparseable row: " + e.getOriginalMessage());
+            }
+        }, sellerId, batchSize);
+    }
+
+    private BookImportReport run(RowSource rows, Long sellerId, Integer requestedBatchSize) throws IOException {
+        int batchSize = requestedBatchSize == null ? defaultBatchSize : Math.max(1, Math.min(requestedBatchSize, maxBatchSize));
+        BookImportReport report = new BookImportReport();
+        long started = System.currentTimeMillis();
+        List<Book> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize);
+
+        Row row;
+        while ((row = rows.next()) != null) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            if (row.error != null) {
+                report.addError(row.number, row.error, maxReportedErrors);
+                continue;
+            }
+
+            Book book = sanitize(row.book);
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                report.addError(row.number, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")), maxReportedErrors);
+                continue;
+            }
+
+            batch.add(book);
+            batchRows.add(row.number);
+            if (batch.size() == batchSize) {
+                writeBatch(batch, batchRows, sellerId, batchSize, report);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, batchRows, sellerId, batchSize, report);
+        }
+
+        report.finish(System.currentTimeMillis() - started);
+        logger.info("Imported {} of {} rows in {} ms ({} rows/s)", report.getImported(), report.getRowsRead(),
+                report.getElapsedMs(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void writeBatch(List<Book> batch, List<Long> batchRows, Long sellerId, int batchSize,
+                            BookImportReport report) {
+        try {
+            persist(batch, sellerId, batchSize);
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            // Retry row by row so only the offending rows are rejected, and each is named.
+            logger.warn("Import batch of rows {}-{} failed, retrying row by row: {}", batchRows.get(0),
+                    batchRows.get(batchRows.size() - 1), NestedExceptionUtils.getMostSpecificCause(e).toString());
+            for (int i = 0; i < batch.size(); i++) {
+                Book book = batch.get(i);
+                book.setId(null);
+                try {
+                    persist(List.of(book), sellerId, 1);
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException rowFailure) {
+                    logger.warn("Import row {} rejected: {}", batchRows.get(i),
+                            NestedExceptionUtils.getMostSpecificCause(rowFailure).toString());
+                    report.addError(batchRows.get(i), rejection(rowFailure), maxReportedErrors);
+                }
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private void persist(List<Book> books, Long sellerId, int batchSize) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            User seller = entityManager.getReference(User.class, sellerId);
+            for (Book book : books) {
+                book.setSeller(seller);
+                entityManager.persist(book);
+            }
+            entityManager.flush();
+            for (Book book : books) {
+                eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.Type.CREATED, book, null));
+            }
+            entityManager.clear();
+        });
+    }
+
+    // The database's own message names tables and values; it is logged, not reported.
+    private static String rejection(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataException) {
+                return "Rejected by the database: a value does not fit its column";
+            }
+            if (cause instanceof ConstraintViolationException || cause instanceof DataIntegrityViolationException) {
+                return "Rejected by the database: a constraint was violated";
+            }
+        }
+        return "Could not be saved";
+    }
+
+    // Only listing fields are taken from the upload; identity, ownership and relations are ours to set.
+    private static Book sanitize(Book book) {
+        book.setId(null);
+        book.setSeller(null);
+        book.setCreatedAt(null);
+        book.setReviews(null);
+        book.setWishlistItems(null);
+        if (book.getIsAvailable() == null) {
+            book.setIsAvailable(true);
+        }
+        if (book.getForSale() == null) {
+            book.setForSale(true);
+        }
+        if (book.getForExchange() == null) {
+            book.setForExchange(false);
+        }
+        return book;
+    }
+
+    private static Book fromCsv(List<String> record, Map<String, Integer> columns) {
+        Book book = new Book();
+        book.setTitle(column(record, columns, "title"));
+        book.setAuthor(column(record, columns, "author"));
+        book.setIsbn(column(record, columns, "isbn"));
+        book.setGenre(column(record, columns, "genre"));
+        book.setDescription(column(record, columns, "description"));
+        book.setLanguage(column(record, columns, "language"));
+
+        String condition = column(record, columns, "condition");
+        if (condition != null) {
+            book.setCondition(Book.BookCondition.valueOf(condition.toUpperCase(Locale.ROOT).replace('-', '_')));
+        }
+        String price = column(record, columns, "price");
+        book.setPrice(price == null ? null : new BigDecimal(price));
+        String images = column(record, columns, "images");
+        book.setImages(images == null ? null : Arrays.stream(images.split("\\|"))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList());
+        String publishedYear = column(record, columns, "publishedyear");
+        book.setPublishedYear(publishedYear == null ? null : Integer.valueOf(publishedYear));
+        String pageCount = column(record, columns, "pagecount");
+        book.setPageCount(pageCount == null ? null : Integer.valueOf(pageCount));
+        String forSale = column(record, columns, "forsale");
+        book.setForSale(forSale == null ? null : Boolean.valueOf(forSale));
+        String forExchange = column(record, columns, "forexchange");
+        book.setForExchange(forExchange == null ? null : Boolean.valueOf(forExchange));
+        return book;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    private static final class Row {
+        private final long number;
+        private final Book book;
+        private final String error;
+
+        Row(long number, Book book, String error) {
+            this.number = number;
+            this.book = book;
+            this.error = error;
+        }
+    }
+}
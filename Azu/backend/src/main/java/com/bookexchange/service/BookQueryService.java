@@ -0,0 +1,106 @@
+package com.bookexchange.service;
+
+import com.bookexchange.dto.BookQuery;
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.FieldSet;
+import com.bookexchange.dto.SlicePage;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.BookRatingSummary;
+import com.bookexchange.exception.BadRequestException;
+import com.bookexchange.repository.BookSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a {@link BookQuery} as a single SELECT: the filters become one WHERE
+ * clause, the seller is fetch-joined and one extra row is read to tell whether
+ * another page exists, so no COUNT query is needed.
+ */
+@Service
+public class BookQueryService {
+    public enum Sort { NEWEST, OLDEST, PRICE_ASC, PRICE_DESC, RATING }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookViewService bookViewService;
+
+    @Transactional(readOnly = true)
+    public SlicePage<BookView> query(BookQuery query, int page, int size) {
+        Sort sort = parseSort(query.getSort());
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> cq = cb.createQuery(Book.class);
+        Root<Book> book = cq.from(Book.class);
+        book.fetch("seller");
+
+        cq.select(book)
+                .where(BookSpecifications.matching(query).toPredicate(book, cq, cb))
+                .orderBy(orderBy(sort, book, cb));
+
+        List<Book> rows = entityManager.createQuery(cq)
+                .setFirstResult(page * size)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasMore = rows.size() > size;
+        List<Book> slice = hasMore ? rows.subList(0, size) : rows;
+        return new SlicePage<>(bookViewService.toViews(slice), page, size, hasMore);
+    }
+
+    // The same slice, reading only the columns behind the requested fields.
+    @Transactional(readOnly = true)
+    public SlicePage<Map<String, Object>> query(BookQuery query, FieldSet fields, int page, int size) {
+        Sort sort = parseSort(query.getSort());
+        List<Map<String, Object>> rows = bookViewService.findColumns(fields, BookSpecifications.matching(query),
+                (book, cb) -> orderBy(sort, book, cb), page * size, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Map<String, Object>> slice = hasMore ? rows.subList(0, size) : rows;
+        return new SlicePage<>(bookViewService.toSparseViews(slice, fields), page, size, hasMore);
+    }
+
+    public static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.NEWEST;
+        }
+        try {
+            return Sort.valueOf(sort.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("sort must be one of newest, oldest, price_asc, price_desc, rating");
+        }
+    }
+
+    // Every ordering ends on the id so pages stay stable between requests.
+    public static List<Order> orderBy(Sort sort, Root<Book> book, CriteriaBuilder cb) {
+        return switch (sort) {
+            case NEWEST -> List.of(cb.desc(book.get("createdAt")), cb.desc(book.get("id")));
+            case OLDEST -> List.of(cb.asc(book.get("createdAt")), cb.asc(book.get("id")));
+            case PRICE_ASC -> List.of(cb.asc(book.get("price")), cb.asc(book.get("id")));
+            case PRICE_DESC -> List.of(cb.desc(book.get("price")), cb.desc(book.get("id")));
+            case RATING -> {
+                // Summaries are not mapped on Book, so join them ad hoc; unrated books sort last.
+                JpaEntityJoin<BookRatingSummary> rating =
+                        ((JpaRoot<Book>) book).join(BookRatingSummary.class, SqmJoinType.LEFT);
+                rating.on(cb.equal(rating.get("bookId"), book.get("id")));
+                Expression<Double> average = cb.quot(cb.toDouble(rating.get("ratingSum")),
+                        cb.nullif(rating.<Long>get("ratingCount"), 0L)).as(Double.class);
+                yield List.of(cb.desc(cb.coalesce(average, 0.0)),
+                        cb.desc(cb.coalesce(rating.<Long>get("ratingCount"), 0L)),
+                        cb.desc(book.get("id")));
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookexchange.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class BookStreamService {
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.catalog.stream-flush-rows:200}")
+    private int flushRows;
+
+    /**
+     * Writes every row of {@code source} as one JSON document per line. Rows are
+     * mapped a chunk at a time, so associations can be batch-loaded per chunk, and
+     * the persistence context is cleared after each chunk so it never grows with
+     * the result.
+     */
+    @Transactional(readOnly = true)
+    public <T> long writeNdjson(Supplier<Stream<T>> source, Function<List<T>, List<?>> mapper,
+                                OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long written = forEachChunk(source, chunk -> {
+            for (Object view : mapper.apply(chunk)) {
+                generator.writeObject(view);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        });
+
+        generator.flush();
+        return written;
+    }
+
+    /**
+     * CSV flavour of {@link #writeNdjson}: a header record, then one record per
+     * row as produced by {@code columns}.
+     */
+    @Transactional(readOnly = true)
+    public <T, V> long writeCsv(Supplier<Stream<T>> source, Function<List<T>, List<V>> mapper,
+                                List<String> header, Function<V, List<?>> columns,
+                                OutputStream out) throws IOException {
+        CsvWriter csv = new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.writeRecord(header);
+
+        long written = forEachChunk(source, chunk -> {
+            for (V view : mapper.apply(chunk)) {
+                csv.writeRecord(columns.apply(view));
+            }
+            csv.flush();
+        });
+
+        csv.flush();
+        return written;
+    }
+
+    private <T> long forEachChunk(Supplier<Stream<T>> source, ChunkWriter<T> writer) throws IOException {
+        long written = 0;
+        try (Stream<T> rows = source.get()) {
+            Iterator<T> iterator = rows.iterator();
+            List<T> chunk = new ArrayList<>(flushRows);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == flushRows || !iterator.hasNext()) {
+                    writer.write(chunk);
+                    written += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    private interface ChunkWriter<T> {
+        void write(List<T> chunk) throws IOException;
+    }
+}
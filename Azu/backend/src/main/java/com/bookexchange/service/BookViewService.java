@@ -0,0 +1,120 @@
+package com.bookexchange.service;
+
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.FieldSet;
+import com.bookexchange.dto.RatingSummaryView;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.BookRatingSummary;
+import com.bookexchange.image.ImageVariant;
+import com.bookexchange.repository.BookColumns;
+import com.bookexchange.repository.BookRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+@Service
+public class BookViewService {
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
+    // For a single book whose seller and images are already loaded.
+    public BookView toView(Book book) {
+        BookRatingSummary summary = ratingSummaryService.findByBookIds(List.of(book.getId())).get(book.getId());
+        return BookView.from(book, book.getImages(), RatingSummaryView.from(summary));
+    }
+
+    /**
+     * Maps books whose seller is already fetched, loading the images and the
+     * rating summaries of the whole batch with one query each.
+     */
+    public List<BookView> toViews(List<Book> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = books.stream().map(Book::getId).toList();
+        Map<Long, List<String>> images = new HashMap<>();
+        for (BookRepository.BookImage image : bookRepository.findImagesByBookIdIn(ids)) {
+            images.computeIfAbsent(image.getBookId(), id -> new ArrayList<>()).add(image.getImageUrl());
+        }
+
+        Map<Long, BookRatingSummary> ratings = ratingSummaryService.findByBookIds(ids);
+
+        return books.stream()
+                .map(book -> BookView.from(book, images.getOrDefault(book.getId(), List.of()),
+                        RatingSummaryView.from(ratings.get(book.getId()))))
+                .toList();
+    }
+
+    // Reads the columns of a sparse fieldset; see columnsOf.
+    public List<Map<String, Object>> findColumns(FieldSet fields, Specification<Book> where,
+                                                 BiFunction<Root<Book>, CriteriaBuilder, List<Order>> orderBy,
+                                                 int offset, int limit) {
+        return bookRepository.findColumns(columnsOf(fields), where, orderBy, offset, limit);
+    }
+
+    /**
+     * The columns behind a sparse fieldset: those of the requested fields, plus the id
+     * and creation time every caller needs for the other fields or for its page cursor.
+     */
+    public static Set<String> columnsOf(FieldSet fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        columns.add("createdAt");
+        fields.getNames().stream().filter(BookColumns::isColumn).forEach(columns::add);
+        return columns;
+    }
+
+    /**
+     * Turns rows read by {@link #findColumns} into the requested fields, in order. Images
+     * and rating summaries are loaded for the batch only when one of them was asked for.
+     */
+    public List<Map<String, Object>> toSparseViews(List<Map<String, Object>> rows, FieldSet fields) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = rows.stream().map(row -> (Long) row.get("id")).toList();
+        Map<Long, List<String>> images = new HashMap<>();
+        if (fields.contains("images") || fields.contains("image") || fields.contains("thumbnails")) {
+            for (BookRepository.BookImage image : bookRepository.findImagesByBookIdIn(ids)) {
+                images.computeIfAbsent(image.getBookId(), id -> new ArrayList<>()).add(image.getImageUrl());
+            }
+        }
+        Map<Long, BookRatingSummary> ratings = fields.contains("rating") ? ratingSummaryService.findByBookIds(ids) : Map.of();
+
+        List<Map<String, Object>> views = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long id = (Long) row.get("id");
+            List<String> bookImages = images.getOrDefault(id, List.of());
+            String first = bookImages.isEmpty() ? null : bookImages.get(0);
+            Map<String, Object> view = new LinkedHashMap<>();
+            for (String field : fields.getNames()) {
+                view.put(field, switch (field) {
+                    case "images" -> bookImages;
+                    case "image" -> first;
+                    case "thumbnails" -> first == null ? null : ImageVariant.thumbnailsOf(first);
+                    case "rating" -> RatingSummaryView.from(ratings.get(id));
+                    default -> row.get(field);
+                });
+            }
+            views.add(view);
+        }
+        return views;
+    }
+}
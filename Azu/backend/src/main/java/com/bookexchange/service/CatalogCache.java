@@ -0,0 +1,127 @@
+package com.bookexchange.service;
+
+import com.bookexchange.dto.BookView;
+import com.bookexchange.event.BookChangedEvent;
+import com.bookexchange.event.RatingChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache for the anonymous catalog endpoints. Listing pages
+ * are keyed under a per-listing generation, so invalidating a listing is a single
+ * counter bump and superseded pages simply age out. The TTL bounds staleness for
+ * changes this node never hears about. {@link CatalogVersion} is advanced only after
+ * the stale entries are gone, so a version never vouches for content older than itself.
+ */
+@Service
+public class CatalogCache {
+    public static final String ALL = "all";
+    public static final String FOR_SALE = "for-sale";
+    public static final String FOR_EXCHANGE = "for-exchange";
+    public static final String QUERY = "query";
+
+    private final Cache<String, Object> pages;
+    private final Cache<Long, BookView> books;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final CatalogVersion catalogVersion;
+
+    public CatalogCache(CatalogVersion catalogVersion,
+                        @Value("${app.cache.catalog.max-pages:10000}") long maxPages,
+                        @Value("${app.cache.catalog.max-books:50000}") long maxBooks,
+                        @Value("${app.cache.catalog.ttl:30s}") Duration ttl) {
+        this.catalogVersion = catalogVersion;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maxBooks)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public static String genre(String genre) {
+        return "genre:" + genre;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getPage(String listing, String variant, Supplier<T> loader) {
+        String key = listing + "#" + generation(listing).get() + "|" + variant;
+        return (T) pages.get(key, k -> loader.get());
+    }
+
+    // A null result (unknown id) is returned but not cached.
+    public BookView getBook(Long id, Function<Long, BookView> loader) {
+        return books.get(id, loader);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        books.invalidate(event.getBookId());
+        generation(ALL).incrementAndGet();
+        generation(FOR_SALE).incrementAndGet();
+        generation(FOR_EXCHANGE).incrementAndGet();
+        generation(QUERY).incrementAndGet();
+        generation(genre(event.getBook().getGenre())).incrementAndGet();
+        if (event.getPreviousGenre() != null) {
+            generation(genre(event.getPreviousGenre())).incrementAndGet();
+        }
+        catalogVersion.bookChanged(event.getBookId());
+    }
+
+    // Ratings are part of every listing a book appears in, genre listings included.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (event.getBookId() == null) {
+            books.invalidateAll();
+        } else {
+            books.invalidate(event.getBookId());
+        }
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        if (event.getBookId() == null) {
+            catalogVersion.everythingChanged();
+        } else {
+            catalogVersion.bookChanged(event.getBookId());
+        }
+    }
+
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("pages", describe(pages.stats(), pages.estimatedSize()));
+        stats.put("books", describe(books.stats(), books.estimatedSize()));
+        return stats;
+    }
+
+    public Cache<String, Object> getPageCache() { return pages; }
+
+    public Cache<Long, BookView> getBookCache() { return books; }
+
+    private AtomicLong generation(String listing) {
+        return generations.computeIfAbsent(listing, k -> new AtomicLong());
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", size);
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictions", stats.evictionCount());
+        return description;
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookexchange.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the catalog and of each book, advanced by {@link CatalogCache} once a
+ * committed change has been evicted from it. Handlers read the version before loading
+ * anything, so a response is never labelled newer than its content, and a client
+ * holding the current version gets a 304 without the catalog being touched.
+ * <p>
+ * Versions restart with the process (the ETag carries a per-process epoch) and, like
+ * the cache, only see this node's writes. For a settle period after each change,
+ * responses carry no validators, so content read from a lagging replica in that
+ * window is never confirmed later; it is at least a second, because
+ * {@code Last-Modified} only has one-second resolution.
+ * <p>
+ * Only the most recently changed books keep a version of their own. When one is
+ * dropped, the floor every book is at moves up to its version, so no book's version
+ * ever goes back; the others merely look changed once.
+ */
+@Service
+public class CatalogVersion {
+    private final String epoch;
+    private final long settleMillis;
+    private final AtomicLong counter = new AtomicLong();
+    private final Cache<Long, Stamp> books;
+    private volatile Stamp catalog;
+    // Every book is at least at this version; advanced when all of them change at once.
+    private volatile Stamp floor;
+
+    public CatalogVersion(@Value("${app.catalog.version-settle:1s}") Duration settle,
+                          @Value("${app.catalog.version-max-books:100000}") long maxBooks) {
+        long now = System.currentTimeMillis();
+        this.epoch = Long.toString(now, 36);
+        this.settleMillis = Math.max(1000, settle.toMillis());
+        this.catalog = new Stamp(0, now);
+        this.floor = catalog;
+        // Called before the entry leaves the map, so readers see it or the raised floor.
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maxBooks)
+                .<Long, Stamp>evictionListener((id, stamp, cause) -> raiseFloor(stamp))
+                .build();
+    }
+
+    public Stamp catalog() {
+        return catalog;
+    }
+
+    public Stamp book(Long id) {
+        Stamp stamp = books.getIfPresent(id);
+        Stamp atLeast = floor;
+        return stamp == null || stamp.version() < atLeast.version() ? atLeast : stamp;
+    }
+
+    /**
+     * Answers a conditional GET from a version alone. Returns true when the client's
+     * copy is current; the 304 has then been set and the handler returns null.
+     * Otherwise nothing is set, since the handler may still fail.
+     */
+    public boolean checkNotModified(ServletWebRequest request, Stamp stamp) {
+        HttpServletResponse response = request.getResponse();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (!settled(stamp)
+                || !new ServletWebRequest(request.getRequest(), new Unwritten(response)).checkNotModified(etag(stamp), stamp.modifiedAt())) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, no-cache");
+        return request.checkNotModified(etag(stamp), stamp.modifiedAt());
+    }
+
+    /**
+     * Labels a successful response with the version read before its content was
+     * loaded, and returns the content.
+     */
+    public <T> T withValidators(ServletWebRequest request, Stamp stamp, T body) {
+        HttpServletResponse response = request.getResponse();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, no-cache");
+        if (settled(stamp)) {
+            response.setHeader(HttpHeaders.ETAG, etag(stamp));
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, stamp.modifiedAt());
+        }
+        return body;
+    }
+
+    void bookChanged(Long id) {
+        Stamp stamp = next();
+        books.put(id, stamp);
+        catalog = stamp;
+    }
+
+    void everythingChanged() {
+        Stamp stamp = next();
+        raiseFloor(stamp);
+        catalog = stamp;
+    }
+
+    private synchronized void raiseFloor(Stamp stamp) {
+        if (stamp.version() > floor.version()) {
+            floor = stamp;
+        }
+    }
+
+    private boolean settled(Stamp stamp) {
+        return System.currentTimeMillis() - stamp.modifiedAt() >= settleMillis;
+    }
+
+    // Weak, since compression changes the bytes but not the meaning.
+    private String etag(Stamp stamp) {
+        return "W/\"" + epoch + "-" + stamp.version() + "\"";
+    }
+
+    private Stamp next() {
+        return new Stamp(counter.incrementAndGet(), System.currentTimeMillis());
+    }
+
+    // Lets Spring evaluate the request's preconditions without writing to the response.
+    private static final class Unwritten extends HttpServletResponseWrapper {
+        private Unwritten(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int sc) {}
+
+        @Override
+        public void setHeader(String name, String value) {}
+
+        @Override
+        public void addHeader(String name, String value) {}
+
+        @Override
+        public void setDateHeader(String name, long date) {}
+
+        @Override
+        public void addDateHeader(String name, long date) {}
+    }
+
+    public record Stamp(long version, long modifiedAt) {}
+}
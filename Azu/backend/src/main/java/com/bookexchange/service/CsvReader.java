@@ -0,0 +1,91 @@
+package com.bookexchange.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields may contain separators,
+ * doubled quotes and line breaks. Only the current record is held in memory.
+ */
+public class CsvReader {
+    private final Reader reader;
+    private long lineNumber = 1;
+    private int pushedBack = -2;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public long getLineNumber() { return lineNumber; }
+
+    /**
+     * Returns the next record, or null at end of input.
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (!any) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            any = true;
+
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,49 @@
+package com.bookexchange.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * RFC 4180 counterpart of {@link CsvReader}. Fields are quoted only when they
+ * contain a separator, quote or line break; nulls are written as empty fields.
+ */
+public class CsvWriter {
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object field = fields.get(i);
+            if (field != null) {
+                writeField(field.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookexchange.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Buffers inbox entries in a bounded queue and writes them in JDBC batches off
+ * the request thread. A duplicate (same saved search and book) is ignored by the
+ * unique key, so re-matching an updated listing does not notify twice. When the
+ * queue is full new entries are dropped and counted rather than blocking writers.
+ */
+@Service
+public class NotificationWriter {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationWriter.class);
+    // A no-op update rather than INSERT IGNORE, which would also swallow truncation and foreign key errors.
+    private static final String INSERT = "INSERT INTO notifications " +
+            "(user_id, saved_search_id, book_id, book_title, is_read, created_at) VALUES (?, ?, ?, ?, false, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter dropped;
+
+    public NotificationWriter(JdbcTemplate jdbcTemplate, MeterRegistry registry,
+                              @Value("${app.notifications.queue-capacity:100000}") int capacity,
+                              @Value("${app.notifications.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.written = registry.counter("notifications.written");
+        this.dropped = registry.counter("notifications.dropped");
+        registry.gauge("notifications.queue.size", queue, BlockingQueue::size);
+    }
+
+    public void enqueue(Long userId, Long savedSearchId, Long bookId, String bookTitle) {
+        if (!queue.offer(new Pending(userId, savedSearchId, bookId, bookTitle, LocalDateTime.now()))) {
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, pending) -> {
+                    statement.setLong(1, pending.userId);
+                    statement.setLong(2, pending.savedSearchId);
+                    statement.setLong(3, pending.bookId);
+                    statement.setString(4, pending.bookTitle);
+                    statement.setTimestamp(5, Timestamp.valueOf(pending.createdAt));
+                });
+                written.increment(batch.size());
+            } catch (DataAccessException e) {
+                dropped.increment(batch.size());
+                logger.warn("Dropped {} notifications: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class Pending {
+        private final Long userId;
+        private final Long savedSearchId;
+        private final Long bookId;
+        private final String bookTitle;
+        private final LocalDateTime createdAt;
+
+        private Pending(Long userId, Long savedSearchId, Long bookId, String bookTitle, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.savedSearchId = savedSearchId;
+            this.bookId = bookId;
+            this.bookTitle = bookTitle;
+            this.createdAt = createdAt;
+        }
+    }
+}
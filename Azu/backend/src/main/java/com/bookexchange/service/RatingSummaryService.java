@@ -0,0 +1,82 @@
+package com.bookexchange.service;
+
+import com.bookexchange.dto.RatingSummaryView;
+import com.bookexchange.entity.BookRatingSummary;
+import com.bookexchange.event.RatingChangedEvent;
+import com.bookexchange.repository.BookRatingSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class RatingSummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(RatingSummaryService.class);
+
+    @Autowired
+    private BookRatingSummaryRepository summaryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Must join the caller's transaction so the summary commits or rolls back with the review.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRating(Long bookId, Integer rating) {
+        if (rating == null) {
+            return;
+        }
+        summaryRepository.addRating(bookId, rating,
+                rating == 1 ? 1 : 0, rating == 2 ? 1 : 0, rating == 3 ? 1 : 0,
+                rating == 4 ? 1 : 0, rating == 5 ? 1 : 0);
+        eventPublisher.publishEvent(new RatingChangedEvent(bookId));
+    }
+
+    public Map<Long, BookRatingSummary> findByBookIds(Collection<Long> bookIds) {
+        return summaryRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(BookRatingSummary::getBookId, Function.identity()));
+    }
+
+    // The ratings of every book the seller has listed, sold ones included.
+    public RatingSummaryView summarizeSeller(Long sellerId) {
+        BookRatingSummary total = new BookRatingSummary();
+        for (BookRatingSummary summary : summaryRepository.findBySellerId(sellerId)) {
+            total.setRatingCount(total.getRatingCount() + summary.getRatingCount());
+            total.setRatingSum(total.getRatingSum() + summary.getRatingSum());
+            total.setRating1(total.getRating1() + summary.getRating1());
+            total.setRating2(total.getRating2() + summary.getRating2());
+            total.setRating3(total.getRating3() + summary.getRating3());
+            total.setRating4(total.getRating4() + summary.getRating4());
+            total.setRating5(total.getRating5() + summary.getRating5());
+        }
+        return RatingSummaryView.from(total);
+    }
+
+    @Transactional
+    public void deleteForBook(Long bookId) {
+        summaryRepository.deleteById(bookId);
+    }
+
+    /**
+     * Recomputes every summary from the reviews table, repairing any drift from
+     * the incremental updates.
+     */
+    @Scheduled(cron = "${app.ratings.rebuild-cron:-}")
+    @Transactional
+    public int rebuild() {
+        long started = System.currentTimeMillis();
+        summaryRepository.deleteAllSummaries();
+        int rebuilt = summaryRepository.insertSummariesFromReviews();
+        eventPublisher.publishEvent(new RatingChangedEvent(null));
+        logger.info("Rebuilt {} book rating summaries in {} ms", rebuilt, System.currentTimeMillis() - started);
+        return rebuilt;
+    }
+}
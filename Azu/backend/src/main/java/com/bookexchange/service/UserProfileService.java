@@ -0,0 +1,193 @@
+package com.bookexchange.service;
+
+import com.bookexchange.datasource.RoutingContext;
+import com.bookexchange.dto.BookView;
+import com.bookexchange.dto.ExchangeRequestView;
+import com.bookexchange.dto.RatingSummaryView;
+import com.bookexchange.dto.ReviewView;
+import com.bookexchange.dto.UserProfileView;
+import com.bookexchange.entity.ExchangeRequest;
+import com.bookexchange.entity.User;
+import com.bookexchange.metrics.SqlStatementStats;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.ExchangeRequestRepository;
+import com.bookexchange.repository.ReviewRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads the sections of a user profile concurrently, each in its own read-only
+ * transaction. Whatever has not arrived by the deadline is reported as unavailable
+ * and the rest is returned. Sub-queries run on virtual threads when the JVM has
+ * them and on a fixed pool otherwise; either way at most {@code max-pending} run or
+ * wait at once, and beyond that sections are reported unavailable straight away.
+ */
+@Service
+public class UserProfileService {
+    private static final Logger logger = LoggerFactory.getLogger(UserProfileService.class);
+    private static final EnumSet<ExchangeRequest.ExchangeStatus> PUBLIC_EXCHANGES =
+            EnumSet.of(ExchangeRequest.ExchangeStatus.COMPLETED);
+
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final ExchangeRequestRepository exchangeRequestRepository;
+    private final BookViewService bookViewService;
+    private final RatingSummaryService ratingSummaryService;
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry registry;
+    private final ExecutorService executor;
+    private final Semaphore pending;
+    private final long timeoutNanos;
+    private final int maxExchanges;
+
+    public UserProfileService(BookRepository bookRepository, ReviewRepository reviewRepository,
+                              ExchangeRequestRepository exchangeRequestRepository,
+                              BookViewService bookViewService, RatingSummaryService ratingSummaryService,
+                              PlatformTransactionManager transactionManager, MeterRegistry registry,
+                              @Value("${app.profile.timeout-ms:500}") long timeoutMs,
+                              @Value("${app.profile.threads:16}") int threads,
+                              @Value("${app.profile.max-pending:64}") int maxPending,
+                              @Value("${app.profile.virtual-threads:true}") boolean virtualThreads,
+                              @Value("${app.profile.max-exchanges:20}") int maxExchanges) {
+        this.bookRepository = bookRepository;
+        this.reviewRepository = reviewRepository;
+        this.exchangeRequestRepository = exchangeRequestRepository;
+        this.bookViewService = bookViewService;
+        this.ratingSummaryService = ratingSummaryService;
+        this.registry = registry;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.maxExchanges = maxExchanges;
+        this.pending = new Semaphore(maxPending);
+        this.executor = newExecutor(threads, virtualThreads);
+
+        // Bounds the statements of a section that missed the deadline; the interrupt alone rarely stops JDBC.
+        // Hibernate rounds the time left down to whole seconds, hence the extra one.
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999) + 1);
+    }
+
+    /**
+     * Loads the profile of the given user. The viewer's own profile lists all their
+     * exchanges; anyone else sees completed exchanges only, without messages.
+     */
+    public UserProfileView load(User user, boolean self) {
+        Long userId = user.getId();
+        long deadline = System.nanoTime() + timeoutNanos;
+        UserProfileView profile = UserProfileView.from(user);
+
+        FutureTask<List<BookView>> listings = submit(() -> bookViewService.toViews(
+                bookRepository.findBySellerIdAndIsAvailableTrueOrderByCreatedAtDesc(userId)));
+        FutureTask<List<ReviewView>> reviews = submit(() -> reviewRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(ReviewView::from)
+                .toList());
+        FutureTask<List<ExchangeRequestView>> exchanges = submit(() -> exchangeRequestRepository.findByPartyAndStatusIn(userId,
+                        self ? EnumSet.allOf(ExchangeRequest.ExchangeStatus.class) : PUBLIC_EXCHANGES,
+                        PageRequest.of(0, maxExchanges)).stream()
+                .map(request -> {
+                    ExchangeRequestView view = ExchangeRequestView.from(request);
+                    if (!self) {
+                        view.setMessage(null);
+                    }
+                    return view;
+                })
+                .toList());
+        FutureTask<RatingSummaryView> rating = submit(() -> ratingSummaryService.summarizeSeller(userId));
+
+        await("listings", listings, deadline, profile, profile::setListings);
+        await("reviews", reviews, deadline, profile, profile::setReviews);
+        await("exchanges", exchanges, deadline, profile, profile::setExchanges);
+        await("rating", rating, deadline, profile, profile::setRating);
+        return profile;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> FutureTask<T> submit(Supplier<T> work) {
+        if (!pending.tryAcquire()) {
+            return null;
+        }
+        FutureTask<T> task = new FutureTask<>(() -> readOnly.execute(status -> work.get()));
+        Runnable run = RoutingContext.propagate(SqlStatementStats.propagate(task));
+        try {
+            executor.execute(() -> {
+                try {
+                    run.run();
+                } finally {
+                    pending.release();
+                }
+            });
+            return task;
+        } catch (RejectedExecutionException e) {
+            pending.release();
+            return null;
+        }
+    }
+
+    private <T> void await(String section, FutureTask<T> task, long deadline, UserProfileView profile, Consumer<T> setter) {
+        if (task == null) {
+            unavailable(section, "rejected", profile);
+            return;
+        }
+        try {
+            setter.accept(task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            unavailable(section, "timeout", profile);
+        } catch (ExecutionException e) {
+            logger.warn("Profile section {} failed: {}", section, e.getCause().toString());
+            unavailable(section, "error", profile);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            unavailable(section, "interrupted", profile);
+        }
+    }
+
+    private void unavailable(String section, String reason, UserProfileView profile) {
+        profile.getUnavailable().add(section);
+        registry.counter("users.profile.sections.unavailable", "section", section, "reason", reason).increment();
+    }
+
+    private static ExecutorService newExecutor(int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.info("Virtual threads are not available; profile sections load on {} threads", threads);
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, "profile-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}
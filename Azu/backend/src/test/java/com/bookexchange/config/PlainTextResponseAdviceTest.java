@@ -0,0 +1,42 @@
+package com.bookexchange.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PlainTextResponseAdviceTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void errorMessageUnderCborIsPlainText() throws Exception {
+        mvc.perform(get("/books").param("cursor", "not-a-cursor").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType("text/plain;charset=UTF-8"));
+    }
+
+    @Test
+    void errorMessageUnderSmileIsPlainText() throws Exception {
+        mvc.perform(get("/books").param("cursor", "not-a-cursor").accept("application/x-jackson-smile"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType("text/plain;charset=UTF-8"));
+    }
+
+    @Test
+    void objectsUnderCborAreStillCbor() throws Exception {
+        mvc.perform(get("/books").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+}
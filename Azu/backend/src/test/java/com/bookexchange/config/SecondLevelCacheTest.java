@@ -0,0 +1,157 @@
+package com.bookexchange.config;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Writes made through the controllers must be visible to the next read from the
+ * second-level cache, not hidden behind an entry cached before them.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        seller = userRepository.findByEmail("cached@example.com")
+                .orElseGet(() -> userRepository.save(new User("cached", "cached@example.com", "secret")));
+    }
+
+    @Test
+    void updatedBookIsReadBackFromTheCache() throws Exception {
+        Long id = save("Cached before").getId();
+        assertEquals("Cached before", bookRepository.findById(id).orElseThrow().getTitle());
+        CacheRegionStatistics books = statistics.getDomainDataRegionStatistics("books");
+        long hits = books.getHitCount();
+        assertEquals("Cached before", bookRepository.findById(id).orElseThrow().getTitle());
+        assertEquals(hits + 1, books.getHitCount());
+
+        mvc.perform(signedIn(put("/books/{id}", id)).contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"title\":\"Cached after\",\"author\":\"Author\",\"isbn\":\"isbn\",\"genre\":\"Fiction\","
+                                + "\"condition\":\"GOOD\",\"price\":12,\"forSale\":true,\"forExchange\":false,"
+                                + "\"isAvailable\":true}"))
+                .andExpect(status().isOk());
+
+        // Served from the cache, which now holds the update.
+        long misses = books.getMissCount();
+        assertEquals("Cached after", bookRepository.findById(id).orElseThrow().getTitle());
+        assertEquals(misses, books.getMissCount());
+        mvc.perform(get("/books/{id}", id)).andExpect(jsonPath("$.title").value("Cached after"));
+    }
+
+    @Test
+    void deletedBookIsNotServedFromTheCache() throws Exception {
+        Long id = save("Cached then deleted").getId();
+        mvc.perform(get("/books/{id}", id)).andExpect(status().isOk());
+        assertTrue(bookRepository.findById(id).isPresent());
+
+        mvc.perform(signedIn(delete("/books/{id}", id))).andExpect(status().isOk());
+
+        CacheRegionStatistics books = statistics.getDomainDataRegionStatistics("books");
+        long hits = books.getHitCount();
+        assertTrue(bookRepository.findById(id).isEmpty());
+        assertEquals(hits, books.getHitCount());
+        mvc.perform(get("/books/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void profileReadsUsersFromTheCache() throws Exception {
+        mvc.perform(get("/users/{id}/profile", seller.getId())).andExpect(status().isOk());
+        CacheRegionStatistics users = statistics.getDomainDataRegionStatistics("users");
+        long hits = users.getHitCount();
+        mvc.perform(get("/users/{id}/profile", seller.getId()))
+                .andExpect(jsonPath("$.username").value("cached"));
+        assertTrue(users.getHitCount() > hits);
+    }
+
+    @Test
+    void signupInvalidatesCachedUserLookups() throws Exception {
+        String email = "newcomer@example.com";
+        assertTrue(userRepository.findByEmail(email).isEmpty());
+        long queryHits = statistics.getQueryCacheHitCount();
+        assertTrue(userRepository.findByEmail(email).isEmpty());
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+
+        mvc.perform(post("/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"newcomer\",\"email\":\"" + email + "\",\"password\":\"secret1\"}"))
+                .andExpect(status().isOk());
+
+        // The cached empty result predates the insert, so it is a miss now.
+        long queryMisses = statistics.getQueryCacheMissCount();
+        mvc.perform(post("/auth/signin").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"secret1\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("newcomer"));
+        assertEquals(queryMisses + 1, statistics.getQueryCacheMissCount());
+
+        queryHits = statistics.getQueryCacheHitCount();
+        assertTrue(userRepository.findByEmail(email).isPresent());
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+    }
+
+    private Book save(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn");
+        book.setGenre("Fiction");
+        book.setCondition(Book.BookCondition.GOOD);
+        book.setPrice(new BigDecimal("10"));
+        book.setSeller(seller);
+        return bookRepository.save(book);
+    }
+
+    private MockHttpServletRequestBuilder signedIn(MockHttpServletRequestBuilder request) {
+        UserPrincipal principal = UserPrincipal.create(seller);
+        return request.with(authentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+}
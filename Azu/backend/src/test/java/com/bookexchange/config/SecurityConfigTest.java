@@ -0,0 +1,81 @@
+package com.bookexchange.config;
+
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.JwtUtils;
+import com.bookexchange.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs against a real server: MockMvc never makes the ERROR dispatch to /error that
+ * Tomcat makes for sendError, which is what the security chain used to turn into a 401.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class SecurityConfigTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    private String token;
+
+    @BeforeEach
+    void signIn() {
+        User user = userRepository.findByEmail("dispatch@example.com")
+                .orElseGet(() -> userRepository.save(new User("dispatch", "dispatch@example.com", "secret")));
+        UserPrincipal principal = UserPrincipal.create(user);
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void invalidBookIsBadRequestForSignedInUser() throws Exception {
+        String book = "{\"title\":\"\",\"author\":\"A\",\"isbn\":\"1\",\"genre\":\"Fantasy\",\"condition\":\"GOOD\"}";
+        assertEquals(400, send("POST", "/books", book, token).statusCode());
+    }
+
+    @Test
+    void malformedJsonIsBadRequestForSignedInUser() throws Exception {
+        assertEquals(400, send("POST", "/books", "{\"title\":", token).statusCode());
+    }
+
+    @Test
+    void unparsablePathVariableIsBadRequestForSignedInUser() throws Exception {
+        assertEquals(400, send("PUT", "/exchanges/abc/status", "\"ACCEPTED\"", token).statusCode());
+    }
+
+    @Test
+    void missingTokenIsStillUnauthorized() throws Exception {
+        assertEquals(401, send("POST", "/books", "{}", null).statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String json, String bearer) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.search.BookSuggestIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Only BadRequestException is the client's fault. Runs against a real server, since
+ * an unhandled exception reaches /error through the container, not through MockMvc.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BadRequestHandlingTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    int port;
+
+    @MockBean
+    BookSuggestIndex bookSuggestIndex;
+
+    @Test
+    void badCursorIsBadRequestWithItsMessage() throws Exception {
+        HttpResponse<String> response = get("/books?cursor=not-a-cursor");
+        assertEquals(400, response.statusCode());
+        assertEquals("Invalid cursor", response.body());
+    }
+
+    @Test
+    void deepSearchPageIsBadRequest() throws Exception {
+        HttpResponse<String> response = get("/books/search?q=dune&page=50000000&limit=100");
+        assertEquals(400, response.statusCode());
+        assertEquals("page is too deep; narrow the query instead", response.body());
+    }
+
+    @Test
+    void otherIllegalArgumentIsServerErrorWithoutItsMessage() throws Exception {
+        when(bookSuggestIndex.suggest(any(), any())).thenThrow(new IllegalArgumentException("Illegal Capacity: -4"));
+        HttpResponse<String> response = get("/books/suggest?q=ha");
+        assertEquals(500, response.statusCode());
+        assertFalse(response.body().contains("Illegal Capacity"));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,115 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.dto.BookCursor;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookExportTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = userRepository.findByEmail("exporter@example.com")
+                .orElseGet(() -> userRepository.save(new User("exporter", "exporter@example.com", "secret")));
+    }
+
+    @Test
+    void incrementalExportPicksUpRowsCommittedBehindTheWatermark() throws Exception {
+        save("Export first");
+        save("Export second");
+        MvcResult full = export(get("/books/export"));
+        String watermark = full.getResponse().getHeader("X-Export-Watermark");
+        assertTrue(full.getResponse().getContentAsString().contains("Export second"));
+
+        // Flushed before the watermark's row but committed after the export read it.
+        Book late = save("Export late");
+        BookCursor mark = BookCursor.decode(watermark);
+        jdbcTemplate.update("UPDATE books SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(mark.getCreatedAt().minusSeconds(1)), late.getId());
+
+        MvcResult next = export(get("/books/export").param("since", watermark));
+        assertTrue(next.getResponse().getContentAsString().contains("Export late"));
+        assertEquals(watermark, next.getResponse().getHeader("X-Export-Watermark"));
+    }
+
+    @Test
+    void gzipRefusedWithZeroQualityIsNotUsed() throws Exception {
+        save("Export plain");
+        assertNull(export(get("/books/export").header("Accept-Encoding", "gzip;q=0, identity"))
+                .getResponse().getHeader("Content-Encoding"));
+        assertEquals("gzip", export(get("/books/export").header("Accept-Encoding", "br, gzip;q=0.5"))
+                .getResponse().getHeader("Content-Encoding"));
+    }
+
+    @Test
+    void acceptsGzipHonoursQualityValues() {
+        assertTrue(BookController.acceptsGzip("gzip"));
+        assertTrue(BookController.acceptsGzip("deflate, GZIP;q=0.8"));
+        assertTrue(BookController.acceptsGzip("*"));
+        assertFalse(BookController.acceptsGzip(null));
+        assertFalse(BookController.acceptsGzip("gzip;q=0"));
+        assertFalse(BookController.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(BookController.acceptsGzip("*;q=0"));
+        assertFalse(BookController.acceptsGzip("br, deflate"));
+        assertFalse(BookController.acceptsGzip("gzipped"));
+    }
+
+    private Book save(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn");
+        book.setGenre("Fiction");
+        book.setCondition(Book.BookCondition.GOOD);
+        book.setPrice(new BigDecimal("10"));
+        book.setSeller(seller);
+        return bookRepository.save(book);
+    }
+
+    private MvcResult export(MockHttpServletRequestBuilder request) throws Exception {
+        UserPrincipal principal = UserPrincipal.create(seller);
+        MvcResult started = mvc.perform(request.with(authentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())))).andReturn();
+        return mvc.perform(asyncDispatch(started)).andReturn();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Only responses that carry the versioned content may be cached or revalidated; an
+ * error labelled with the catalog's version would be confirmed by the next 304.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogValidatorsTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Test
+    void missingBookHasNoValidators() throws Exception {
+        mvc.perform(get("/books/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(header().string("Cache-Control", not(containsString("public"))));
+    }
+
+    @Test
+    void badCursorHasNoValidators() throws Exception {
+        mvc.perform(get("/books").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
+    @Test
+    void foundBookIsRevalidated() throws Exception {
+        User seller = userRepository.findByEmail("validators@example.com")
+                .orElseGet(() -> userRepository.save(new User("validators", "validators@example.com", "secret")));
+        Book book = new Book();
+        book.setTitle("Validated");
+        book.setAuthor("Author");
+        book.setIsbn("isbn");
+        book.setGenre("Fiction");
+        book.setCondition(Book.BookCondition.GOOD);
+        book.setPrice(new BigDecimal("10"));
+        book.setSeller(seller);
+        Long id = bookRepository.save(book).getId();
+        // Saved behind the controller's back, so the book is at the startup floor, which has settled.
+        Thread.sleep(1000);
+
+        String etag = mvc.perform(get("/books/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "public, no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        mvc.perform(get("/books/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,75 @@
+package com.bookexchange.controller;
+
+import com.bookexchange.entity.SavedSearch;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.SavedSearchRepository;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires more concurrent creates than the cap allows; the lock on the user's row must
+ * keep every count-then-insert from seeing the same count.
+ */
+@SpringBootTest(properties = "app.saved-searches.max-per-user=3")
+@ActiveProfiles("test")
+class SavedSearchLimitTest {
+    private static final int ATTEMPTS = 12;
+
+    @Autowired
+    SavedSearchController savedSearchController;
+
+    @Autowired
+    SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void concurrentCreatesStopAtTheCap() throws Exception {
+        User user = userRepository.save(new User("saved-search-racer", "saved-search-racer@example.com", "secret1"));
+        UserPrincipal principal = UserPrincipal.create(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        ExecutorService executor = Executors.newFixedThreadPool(ATTEMPTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                String terms = "racer " + i;
+                statuses.add(executor.submit(() -> {
+                    SavedSearch search = new SavedSearch();
+                    search.setTerms(terms);
+                    start.await();
+                    return savedSearchController.createSavedSearch(search, authentication).getStatusCode().value();
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Integer> status : statuses) {
+                if (status.get() == 200) {
+                    created++;
+                }
+            }
+            assertEquals(3, created);
+            assertEquals(3, savedSearchRepository.countByUserId(user.getId()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bookexchange.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two embedded databases that each know which one they are, wired the way
+ * {@code DataSourceRoutingConfig} wires them, so every query shows where it went.
+ */
+class ReadWriteRoutingDataSourceTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routing = new ReadWriteRoutingDataSource(primary, Map.of("replica-1", replica), Duration.ofSeconds(1), registry);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(proxy);
+        DataSourceTransactionManager transactions = new DataSourceTransactionManager(proxy);
+        writes = new TransactionTemplate(transactions);
+        reads = new TransactionTemplate(transactions);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RoutingContext.end();
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", reads.execute(status -> whereAmI()));
+        assertEquals(1.0, reads("replica"));
+    }
+
+    @Test
+    void writableTransactionsGoToThePrimary() {
+        assertEquals("primary", writes.execute(status -> whereAmI()));
+        assertEquals(0.0, reads("replica"));
+    }
+
+    @Test
+    void requestsThatWroteKeepReadingFromThePrimary() {
+        RoutingContext.begin(true, false);
+        assertEquals("replica", whereAmI());
+        writes.executeWithoutResult(status -> whereAmI());
+        assertEquals("primary", reads.execute(status -> whereAmI()));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        replica.close();
+        assertEquals("primary", reads.execute(status -> whereAmI()));
+        assertEquals(1.0, reads("primary"));
+
+        routing.checkHealth();
+        assertEquals(0.0, registry.get("datasource.replicas.available").gauge().value());
+    }
+
+    @Test
+    void suspendedReplicaIsSkippedAndDrainedBeforeReload() throws Exception {
+        Connection inFlight = replica.getConnection();
+        routing.suspend("replica-1");
+        assertEquals("primary", reads.execute(status -> whereAmI()));
+        assertFalse(routing.awaitIdle("replica-1", Duration.ofMillis(50)));
+
+        inFlight.close();
+        assertTrue(routing.awaitIdle("replica-1", Duration.ofSeconds(1)));
+        routing.resume("replica-1");
+        assertEquals("replica", reads.execute(status -> whereAmI()));
+    }
+
+    private String whereAmI() {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private double reads(String target) {
+        return registry.get("datasource.reads").tag("target", target).counter().count();
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPoolName(name);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(16))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,145 @@
+package com.bookexchange.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileSenderTest {
+    private static final String ETAG = "\"abc\"";
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(dir.resolve("file.jpg"), CONTENT);
+    }
+
+    @Test
+    void parsesSingleRanges() {
+        assertArrayEquals(new long[] {0, 5}, FileSender.parseRange("bytes=0-4", 10));
+        assertArrayEquals(new long[] {5, 10}, FileSender.parseRange("bytes=5-", 10));
+        assertArrayEquals(new long[] {7, 10}, FileSender.parseRange("bytes=-3", 10));
+        assertArrayEquals(new long[] {0, 10}, FileSender.parseRange("bytes=-30", 10));
+        assertArrayEquals(new long[] {8, 10}, FileSender.parseRange("bytes=8-100", 10));
+    }
+
+    @Test
+    void sendsWholeFileForRangesItDoesNotServe() {
+        assertArrayEquals(new long[0], FileSender.parseRange("bytes=0-1,4-5", 10));
+        assertArrayEquals(new long[0], FileSender.parseRange("items=0-4", 10));
+        assertArrayEquals(new long[0], FileSender.parseRange("bytes=x-4", 10));
+        assertArrayEquals(new long[0], FileSender.parseRange("bytes=5", 10));
+        assertArrayEquals(new long[0], FileSender.parseRange("bytes=5-2", 10));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertNull(FileSender.parseRange("bytes=10-", 10));
+        assertNull(FileSender.parseRange("bytes=-0", 10));
+        assertNull(FileSender.parseRange("bytes=-5", 0));
+    }
+
+    @Test
+    void sendsWholeFile() throws Exception {
+        MockHttpServletResponse response = send(get());
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(10, response.getContentLengthLong());
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", "\"other\", W/" + ETAG);
+        MockHttpServletResponse response = send(request);
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void rangeIsPartialContent() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = send(request);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void rangeIsServedWhenIfRangeMatches() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=-2");
+        request.addHeader("If-Range", ETAG);
+        MockHttpServletResponse response = send(request);
+        assertEquals(206, response.getStatus());
+        assertEquals("89", response.getContentAsString());
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeFile() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"old\"");
+        MockHttpServletResponse response = send(request);
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Range"));
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=20-");
+        MockHttpServletResponse response = send(request);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        MockHttpServletResponse response = send(new MockHttpServletRequest("HEAD", "/images/file.jpg"));
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendfileIsHandedToTheConnector() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=3-");
+        MockHttpServletResponse response = send(request);
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(3L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/images/file.jpg");
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileSender.send(request, response, file, "image/jpeg", ETAG, "public, max-age=31536000, immutable");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return response;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bookexchange.image;
+
+import com.bookexchange.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageStoreTest {
+    @TempDir
+    Path dir;
+
+    private ImageStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new ImageStore(dir.toString(), 1024 * 1024, 1_000_000);
+    }
+
+    @Test
+    void acceptsImagesByTheirMagicBytes() throws Exception {
+        assertTrue(store.stage(image("png")).name().endsWith(".png"));
+        assertTrue(store.stage(image("jpg")).name().endsWith(".jpg"));
+        assertTrue(store.stage(image("gif")).name().endsWith(".gif"));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotImages() throws Exception {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> store.stage(new ByteArrayInputStream("<svg onload=alert(1)>".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("Only JPEG, PNG and GIF images are accepted", e.getMessage());
+        assertTrue(isEmpty(dir.resolve("tmp")));
+    }
+
+    @Test
+    void rejectsMagicBytesFollowedByGarbage() {
+        byte[] fake = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0, 1, 2, 3, 4};
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> store.stage(new ByteArrayInputStream(fake)));
+        assertEquals("Unreadable image", e.getMessage());
+    }
+
+    @Test
+    void rejectsImagesOverThePixelLimit() throws Exception {
+        ImageStore small = new ImageStore(dir.toString(), 1024 * 1024, 100);
+        assertThrows(BadRequestException.class, () -> small.stage(image("png", 11, 10)));
+    }
+
+    @Test
+    void stagedImageIsOnlyStoredWhenPublished() throws Exception {
+        byte[] png = image("png").readAllBytes();
+        StagedImage kept = store.stage(new ByteArrayInputStream(png));
+        assertFalse(Files.exists(store.original(kept.name())));
+        store.publish(kept);
+        assertArrayEquals(png, Files.readAllBytes(store.original(kept.name())));
+
+        StagedImage dropped = store.stage(image("gif"));
+        store.discard(dropped);
+        assertFalse(Files.exists(store.original(dropped.name())));
+        assertTrue(isEmpty(dir.resolve("tmp")));
+    }
+
+    private static ByteArrayInputStream image(String format) throws Exception {
+        return image(format, 4, 3);
+    }
+
+    private static ByteArrayInputStream image(String format, int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private static boolean isEmpty(Path directory) throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookexchange.image;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StagedImageListenerTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ImageStore imageStore;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Test
+    void uploadIsStoredOnceTheBookIsSaved() throws Exception {
+        User seller = userRepository.findByEmail("uploader@example.com")
+                .orElseGet(() -> userRepository.save(new User("uploader", "uploader@example.com", "secret")));
+        Book book = new Book();
+        book.setTitle("Pictured");
+        book.setAuthor("Author");
+        book.setIsbn("isbn");
+        book.setGenre("Fiction");
+        book.setCondition(Book.BookCondition.GOOD);
+        book.setPrice(new BigDecimal("10"));
+        book.setSeller(seller);
+        Long id = bookRepository.save(book).getId();
+        byte[] png = png(5);
+        StagedImage probe = imageStore.stage(new ByteArrayInputStream(png));
+        imageStore.discard(probe);
+        String name = probe.name();
+        Files.deleteIfExists(imageStore.original(name));
+
+        UserPrincipal principal = UserPrincipal.create(seller);
+        mvc.perform(multipart("/books/{id}/images", id).file(new MockMultipartFile("file", "photo.png", "image/png", png))
+                        .with(authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()))))
+                .andExpect(status().isOk());
+
+        assertTrue(Files.exists(imageStore.original(name)));
+    }
+
+    @Test
+    void uploadIsDroppedWhenTheTransactionRollsBack() throws Exception {
+        StagedImage staged = imageStore.stage(new ByteArrayInputStream(png(6)));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(staged);
+            status.setRollbackOnly();
+        });
+
+        assertFalse(Files.exists(staged.file()));
+        assertFalse(Files.exists(imageStore.original(staged.name())));
+    }
+
+    // A size of its own per test, so each stores a file no other test has.
+    private static byte[] png(int size) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,228 @@
+package com.bookexchange.metrics;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.ExchangeRequest;
+import com.bookexchange.entity.Review;
+import com.bookexchange.entity.User;
+import com.bookexchange.entity.WishlistItem;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.ExchangeRequestRepository;
+import com.bookexchange.repository.ReviewRepository;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.repository.WishlistItemRepository;
+import com.bookexchange.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Calls the {@link QueryBudget} endpoints with app.metrics.query-budget.strict on (the
+ * test profile), so a handler that issues more statements than it declares fails here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    ReviewRepository reviewRepository;
+
+    @Autowired
+    WishlistItemRepository wishlistItemRepository;
+
+    @Autowired
+    ExchangeRequestRepository exchangeRequestRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    private User seller;
+    private User buyer;
+    private Book sellersBook;
+    private Book buyersBook;
+
+    @BeforeAll
+    void seed() {
+        seller = userRepository.save(new User("budget-seller", "budget-seller@example.com", passwordEncoder.encode("secret1")));
+        buyer = userRepository.save(new User("budget-buyer", "budget-buyer@example.com", passwordEncoder.encode("secret1")));
+        for (int i = 0; i < 25; i++) {
+            sellersBook = bookRepository.save(book("Dune " + i, i % 2 == 0 ? "SciFi" : "Fantasy", seller));
+        }
+        buyersBook = bookRepository.save(book("Emma", "Classic", buyer));
+
+        Review review = new Review();
+        review.setUser(buyer);
+        review.setBook(sellersBook);
+        review.setRating(4);
+        review.setComment("Good copy");
+        reviewRepository.save(review);
+        wishlistItemRepository.save(new WishlistItem(buyer, bookRepository.findAll().get(0)));
+        ExchangeRequest exchange = new ExchangeRequest();
+        exchange.setRequester(buyer);
+        exchange.setOwner(seller);
+        exchange.setRequestedBook(sellersBook);
+        exchange.setOfferedBook(buyersBook);
+        exchangeRequestRepository.save(exchange);
+    }
+
+    @Test
+    void catalogReadsStayWithinBudget() throws Exception {
+        ok(get("/books"));
+        ok(get("/books").param("fields", "summary"));
+        ok(get("/books/" + sellersBook.getId()));
+        ok(get("/books/search").param("q", "dune"));
+        ok(get("/books/suggest").param("q", "du"));
+        ok(get("/books/query").param("genre", "SciFi").param("sort", "price_asc"));
+        ok(get("/books/query").param("genre", "SciFi").param("fields", "summary"));
+        ok(get("/books/facets"));
+        ok(get("/books/genre/SciFi"));
+        ok(get("/books/for-sale"));
+        ok(get("/books/for-exchange"));
+        ok(get("/reviews/book/" + sellersBook.getId()));
+        ok(get("/reviews/user/" + buyer.getId()));
+        ok(get("/users/" + seller.getId() + "/profile"));
+    }
+
+    @Test
+    void signedInReadsStayWithinBudget() throws Exception {
+        ok(as(buyer, get("/users/" + buyer.getId() + "/profile")));
+        ok(as(buyer, get("/wishlist")));
+        ok(as(buyer, get("/wishlist").param("fields", "summary")));
+        ok(as(buyer, get("/exchanges/sent")));
+        ok(as(seller, get("/exchanges/received")));
+        ok(as(buyer, get("/exchanges/matches")));
+        ok(as(buyer, get("/notifications")));
+        ok(as(buyer, get("/notifications/unread-count")));
+        ok(as(buyer, get("/saved-searches")));
+    }
+
+    @Test
+    void writesStayWithinBudget() throws Exception {
+        ok(as(seller, json(post("/books"),
+                "{\"title\":\"Budget\",\"author\":\"A\",\"isbn\":\"1\",\"genre\":\"SciFi\",\"condition\":\"GOOD\",\"price\":5}")));
+        ok(as(buyer, json(put("/books/" + buyersBook.getId()),
+                "{\"title\":\"Emma\",\"author\":\"Austen\",\"isbn\":\"2\",\"genre\":\"Classic\",\"condition\":\"GOOD\",\"price\":6}")));
+        ok(as(buyer, json(post("/reviews"),
+                "{\"book\":{\"id\":" + sellersBook.getId() + "},\"rating\":5,\"comment\":\"Great\"}")));
+        ok(as(buyer, post("/wishlist/" + sellersBook.getId())));
+        ok(as(buyer, delete("/wishlist/" + sellersBook.getId())));
+        ok(as(buyer, json(post("/exchanges"), "{\"owner\":{\"id\":" + seller.getId() + "},\"requestedBook\":{\"id\":"
+                + sellersBook.getId() + "},\"offeredBook\":{\"id\":" + buyersBook.getId() + "},\"message\":\"Swap?\"}")));
+        String saved = ok(as(buyer, json(post("/saved-searches"), "{\"terms\":\"dune\",\"genre\":\"SciFi\"}")))
+                .getResponse().getContentAsString();
+        String id = saved.replaceAll("(?s).*\"id\":(\\d+).*", "$1");
+        ok(as(buyer, delete("/saved-searches/" + id)));
+        ok(as(buyer, post("/notifications/read")));
+    }
+
+    @Test
+    void authStaysWithinBudget() throws Exception {
+        ok(json(post("/auth/signup"), "{\"username\":\"budget-new\",\"email\":\"budget-new@example.com\",\"password\":\"secret1\"}"));
+        ok(json(post("/auth/signin"), "{\"email\":\"budget-seller@example.com\",\"password\":\"secret1\"}"));
+    }
+
+    @Test
+    void handlerOverItsBudgetFails() {
+        Exception failure = assertThrows(Exception.class, () -> mvc.perform(as(buyer, get("/budget-probe"))));
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryBudgetExceededException) {
+                assertTrue(cause.getMessage().contains("GET /budget-probe issued 3 SQL statements; its budget is 1"),
+                        cause.getMessage());
+                return;
+            }
+        }
+        fail("Expected a QueryBudgetExceededException, got " + failure);
+    }
+
+    private MvcResult ok(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mvc.perform(asyncDispatch(result)).andReturn();
+        }
+        int status = result.getResponse().getStatus();
+        assertTrue(status < 400, () -> request.buildRequest(null).getRequestURI() + " returned " + status);
+        return result;
+    }
+
+    private static MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        UserPrincipal principal = UserPrincipal.create(user);
+        return request.with(authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, String body) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    private static Book book(String title, String genre, User seller) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Herbert");
+        book.setIsbn("isbn");
+        book.setGenre(genre);
+        book.setCondition(Book.BookCondition.GOOD);
+        book.setPrice(new BigDecimal("12.50"));
+        book.setForExchange(true);
+        book.setSeller(seller);
+        return book;
+    }
+
+    @TestConfiguration
+    static class OverBudget {
+        @Bean
+        BudgetProbe budgetProbe(BookRepository bookRepository) {
+            return new BudgetProbe(bookRepository);
+        }
+    }
+
+    @RestController
+    static class BudgetProbe {
+        private final BookRepository bookRepository;
+
+        BudgetProbe(BookRepository bookRepository) {
+            this.bookRepository = bookRepository;
+        }
+
+        @GetMapping("/budget-probe")
+        @QueryBudget(1)
+        public long probe() {
+            bookRepository.existsById(-1L);
+            bookRepository.existsById(-2L);
+            return bookRepository.count();
+        }
+    }
+}
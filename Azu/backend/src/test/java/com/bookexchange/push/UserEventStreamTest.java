@@ -0,0 +1,82 @@
+package com.bookexchange.push;
+
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.UserRepository;
+import com.bookexchange.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserEventStreamTest {
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserEventStream userEventStream;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void replayedEventsArriveBeforeLiveOnes() throws Exception {
+        User user = userRepository.save(new User("listener", "listener@example.com", "secret"));
+        MockHttpServletResponse first = mvc.perform(stream(user, null)).andReturn().getResponse();
+        for (int i = 0; i < 3; i++) {
+            userEventStream.publish(user.getId(), UserEventStream.EXCHANGE_STATUS, Map.of("n", i));
+        }
+        List<Long> published = awaitIds(first, 3);
+        assertEquals(3, published.size(), first.getContentAsString());
+
+        // Resumes after the first event, then a live event is published straight away.
+        MockHttpServletResponse resumed = mvc.perform(stream(user, published.get(0))).andReturn().getResponse();
+        userEventStream.publish(user.getId(), UserEventStream.EXCHANGE_STATUS, Map.of("n", "live"));
+
+        List<Long> ids = awaitIds(resumed, 3);
+        assertEquals(List.of(published.get(1), published.get(2)), ids.subList(0, Math.min(2, ids.size())),
+                resumed.getContentAsString());
+        assertEquals(3, ids.size(), resumed.getContentAsString());
+        assertTrue(ids.get(2) > published.get(2));
+    }
+
+    private static MockHttpServletRequestBuilder stream(User user, Long lastEventId) {
+        UserPrincipal principal = UserPrincipal.create(user);
+        MockHttpServletRequestBuilder request = get("/events")
+                .with(authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        return lastEventId == null ? request : request.header("Last-Event-ID", lastEventId);
+    }
+
+    private static List<Long> awaitIds(MockHttpServletResponse response, int expected) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int attempt = 0; attempt < 100 && ids.size() < expected; attempt++) {
+            Thread.sleep(20);
+            ids.clear();
+            Matcher matcher = EVENT_ID.matcher(response.getContentAsString());
+            while (matcher.find()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return ids;
+    }
+}
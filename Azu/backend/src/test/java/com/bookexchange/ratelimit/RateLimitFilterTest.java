@@ -0,0 +1,64 @@
+package com.bookexchange.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), new SimpleMeterRegistry());
+
+    @Test
+    void encodedSpellingsShareTheBucket() throws Exception {
+        assertEquals(200, send("GET", "/api/books/search"));
+        assertEquals(429, send("GET", "/api/books/search"));
+
+        assertEquals(429, send("GET", "/api/books/%73earch"));
+        assertEquals(429, send("GET", "/api/books/search;jsessionid=1"));
+        assertEquals(429, send("GET", "/api//books//search"));
+    }
+
+    @Test
+    void encodedSignInIsLimited() throws Exception {
+        assertEquals(200, send("POST", "/api/auth/signin"));
+        assertEquals(429, send("POST", "/api/auth/%73ignin"));
+        assertEquals(429, send("POST", "/api/auth/%73%69%67%6E%69%6E"));
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        assertEquals(200, send("GET", "/api/books/search"));
+        assertEquals(200, send("GET", "/api/books/suggest"));
+        assertEquals(200, send("GET", "/api/books/suggest"));
+    }
+
+    private int send(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setContextPath("/api");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("search", group("/books/search"));
+        properties.getGroups().put("signin", group("/auth/signin"));
+        return properties;
+    }
+
+    private static RateLimitProperties.Group group(String path) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPaths(List.of(path));
+        group.setLimit(1);
+        group.setPeriod(Duration.ofHours(1));
+        return group;
+    }
+}
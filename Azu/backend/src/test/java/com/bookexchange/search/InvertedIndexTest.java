@@ -0,0 +1,42 @@
+package com.bookexchange.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    @Test
+    void ranksAndPagesHits() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of(InvertedIndex.Field.TITLE, "dune"));
+        index.put(2, Map.of(InvertedIndex.Field.TITLE, "dune messiah"));
+        index.put(3, Map.of(InvertedIndex.Field.TITLE, "children of dune"));
+
+        SearchHits first = index.search("dune", 0, 2);
+        SearchHits second = index.search("dune", 2, 2);
+
+        assertEquals(3, first.getTotal());
+        assertEquals(2, first.getIds().size());
+        assertEquals(1, second.getIds().size());
+        assertEquals(Set.of(1L, 2L, 3L), Stream.concat(first.getIds().stream(), second.getIds().stream())
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void hugeOffsetSizesTheHeapByTheHitsNotTheOffset() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of(InvertedIndex.Field.TITLE, "dune"));
+
+        SearchHits hits = index.search("dune", Integer.MAX_VALUE - 10, 100);
+
+        assertEquals(1, hits.getTotal());
+        assertTrue(hits.getIds().isEmpty());
+    }
+}
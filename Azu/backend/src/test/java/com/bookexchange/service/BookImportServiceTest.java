@@ -0,0 +1,49 @@
+package com.bookexchange.service;
+
+import com.bookexchange.dto.BookImportReport;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookImportServiceTest {
+    @Autowired
+    BookImportService bookImportService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Test
+    void databaseRejectionIsIsolatedToItsRow() throws Exception {
+        User seller = userRepository.save(new User("importer", "importer@example.com", "secret"));
+        long before = bookRepository.count();
+        String csv = "title,author,isbn,genre,condition,price\n"
+                + "Dune,Herbert,1,SciFi,GOOD,10\n"
+                + "X".repeat(300) + ",Herbert,2,SciFi,GOOD,10\n"
+                + "Emma,Austen,3,Classic,GOOD,10\n";
+
+        BookImportReport report = bookImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), seller.getId(), 10);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getRow());
+        assertEquals("Rejected by the database: a value does not fit its column", report.getErrors().get(0).getMessage());
+        assertFalse(report.getErrors().get(0).getMessage().contains("TITLE"));
+        assertEquals(before + 2, bookRepository.count());
+    }
+}
@@ -0,0 +1,89 @@
+package com.bookexchange.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogVersionTest {
+    private final CatalogVersion versions = new CatalogVersion(Duration.ofSeconds(1), 10);
+    private final CatalogVersion.Stamp settled = new CatalogVersion.Stamp(7, System.currentTimeMillis() - 60_000);
+
+    @Test
+    void bookVersionsNeverGoBackWhenDropped() {
+        Map<Long, Long> changedAt = new HashMap<>();
+        for (long id = 1; id <= 1000; id++) {
+            versions.bookChanged(id);
+            changedAt.put(id, versions.book(id).version());
+        }
+        changedAt.forEach((id, version) -> assertTrue(versions.book(id).version() >= version, "book " + id));
+        assertEquals(1000, versions.book(1000L).version());
+    }
+
+    @Test
+    void everythingChangedMovesEveryBook() {
+        versions.bookChanged(1L);
+        versions.everythingChanged();
+        assertEquals(2, versions.book(1L).version());
+        assertEquals(2, versions.book(2L).version());
+        assertEquals(2, versions.catalog().version());
+    }
+
+    @Test
+    void missLeavesTheResponseUnlabelled() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/1");
+        request.addHeader("If-None-Match", "W/\"stale-1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(versions.checkNotModified(new ServletWebRequest(request, response), settled));
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("ETag"));
+        assertNull(response.getHeader("Last-Modified"));
+        assertNull(response.getHeader("Cache-Control"));
+        assertEquals("Accept", response.getHeader("Vary"));
+    }
+
+    @Test
+    void successfulResponseIsLabelledAndThenNotModified() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/books/1"), first);
+        assertFalse(versions.checkNotModified(request, settled));
+        assertEquals("body", versions.withValidators(request, settled, "body"));
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+        assertNotNull(first.getHeader("Last-Modified"));
+        assertEquals("public, no-cache", first.getHeader("Cache-Control"));
+
+        MockHttpServletRequest again = new MockHttpServletRequest("GET", "/books/1");
+        again.addHeader("If-None-Match", etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertTrue(versions.checkNotModified(new ServletWebRequest(again, second), settled));
+        assertEquals(304, second.getStatus());
+        assertEquals(etag, second.getHeader("ETag"));
+        assertEquals("public, no-cache", second.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void unsettledVersionIsNeitherLabelledNorConfirmed() {
+        CatalogVersion.Stamp fresh = new CatalogVersion.Stamp(8, System.currentTimeMillis());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/1");
+        request.addHeader("If-Modified-Since", System.currentTimeMillis() + 60_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+
+        assertFalse(versions.checkNotModified(webRequest, fresh));
+        versions.withValidators(webRequest, fresh, "body");
+        assertNull(response.getHeader("ETag"));
+        assertNull(response.getHeader("Last-Modified"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.bookexchange.service;
+
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.SavedSearch;
+import com.bookexchange.entity.User;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.NotificationRepository;
+import com.bookexchange.repository.SavedSearchRepository;
+import com.bookexchange.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationWriterTest {
+    @Autowired
+    NotificationWriter notificationWriter;
+
+    @Autowired
+    NotificationRepository notificationRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    SavedSearchRepository savedSearchRepository;
+
+    // The search is saved without registering it, so only the enqueued entries reach the inbox.
+    @Test
+    void aRepeatedSearchAndBookIsWrittenOnce() {
+        User user = userRepository.save(new User("inbox-reader", "inbox-reader@example.com", "secret1"));
+        User seller = userRepository.save(new User("inbox-seller", "inbox-seller@example.com", "secret1"));
+        SavedSearch search = new SavedSearch();
+        search.setUser(user);
+        search.setGenre("Poetry");
+        search = savedSearchRepository.save(search);
+        Book first = bookRepository.save(book("Odes", seller));
+        Book second = bookRepository.save(book("Elegies", seller));
+
+        notificationWriter.enqueue(user.getId(), search.getId(), first.getId(), first.getTitle());
+        notificationWriter.enqueue(user.getId(), search.getId(), first.getId(), first.getTitle());
+        notificationWriter.enqueue(user.getId(), search.getId(), second.getId(), second.getTitle());
+        notificationWriter.flush();
+
+        assertEquals(2, notificationRepository.countByUserIdAndIsReadFalse(user.getId()));
+    }
+
+    private static Book book(String title, User seller) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Keats");
+        book.setIsbn("isbn");
+        book.setGenre("Poetry");
+        book.setCondition(Book.BookCondition.GOOD);
+        book.setPrice(new BigDecimal("8.00"));
+        book.setForExchange(true);
+        book.setSeller(seller);
+        return book;
+    }
+}
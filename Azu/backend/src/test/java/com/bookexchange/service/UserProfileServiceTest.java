@@ -0,0 +1,193 @@
+package com.bookexchange.service;
+
+import com.bookexchange.controller.UserController;
+import com.bookexchange.datasource.ReadRoutingInterceptor;
+import com.bookexchange.datasource.RoutingContext;
+import com.bookexchange.dto.ExchangeRequestView;
+import com.bookexchange.dto.RatingSummaryView;
+import com.bookexchange.dto.UserProfileView;
+import com.bookexchange.entity.Book;
+import com.bookexchange.entity.ExchangeRequest;
+import com.bookexchange.entity.User;
+import com.bookexchange.metrics.SqlMetricsFilter;
+import com.bookexchange.metrics.SqlStatementStats;
+import com.bookexchange.repository.BookRepository;
+import com.bookexchange.repository.ExchangeRequestRepository;
+import com.bookexchange.repository.ReviewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserProfileServiceTest {
+    private static final long TIMEOUT_MS = 200;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final ExchangeRequestRepository exchangeRequestRepository = mock(ExchangeRequestRepository.class);
+    private final RatingSummaryService ratingSummaryService = mock(RatingSummaryService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserProfileService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        service = new UserProfileService(bookRepository, reviewRepository, exchangeRequestRepository,
+                mock(BookViewService.class), ratingSummaryService, transactionManager, registry,
+                TIMEOUT_MS, 4, 64, false, 20);
+        user = user(1L, "owner");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void sectionPastTheDeadlineIsReportedAndCancelled() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(ratingSummaryService.summarizeSeller(anyLong())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        long start = System.nanoTime();
+        UserProfileView profile = service.load(user, true);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS * 5));
+        assertEquals(List.of("rating"), profile.getUnavailable());
+        assertNotNull(profile.getListings());
+        assertNotNull(profile.getExchanges());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "the late section was not interrupted");
+        assertEquals(1.0, registry.get("users.profile.sections.unavailable")
+                .tag("section", "rating").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void sectionsRunWithTheRequestsRoutingAndStatementStats() throws Exception {
+        AtomicReference<SqlStatementStats> requestStats = new AtomicReference<>();
+        AtomicReference<SqlStatementStats> workerStats = new AtomicReference<>();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        AtomicBoolean workerRouted = new AtomicBoolean();
+        when(ratingSummaryService.summarizeSeller(anyLong())).thenAnswer(invocation -> {
+            worker.set(Thread.currentThread());
+            workerStats.set(SqlStatementStats.current());
+            workerRouted.set(hasRoutingContext());
+            return new RatingSummaryView();
+        });
+
+        // Opened the way a profile request opens them: the metrics filter, then the routing interceptor.
+        ReadRoutingInterceptor interceptor = new ReadRoutingInterceptor(Duration.ZERO);
+        HandlerMethod handler = new HandlerMethod(new UserController(),
+                UserController.class.getMethod("getProfile", Long.class, Authentication.class));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1/profile");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new SqlMetricsFilter(registry, false).doFilter(request, response, (req, res) -> {
+            requestStats.set(SqlStatementStats.current());
+            interceptor.preHandle(request, response, handler);
+            try {
+                assertTrue(service.load(user, false).getUnavailable().isEmpty());
+            } finally {
+                interceptor.afterCompletion(request, response, handler, null);
+            }
+        });
+
+        assertNotEquals(Thread.currentThread(), worker.get());
+        assertNotNull(requestStats.get());
+        assertSame(requestStats.get(), workerStats.get());
+        assertTrue(workerRouted.get(), "the section ran without the request's routing context");
+    }
+
+    @Test
+    void othersSeeOnlyCompletedExchangesWithoutMessages() {
+        when(exchangeRequestRepository.findByPartyAndStatusIn(eq(1L), any(), any()))
+                .thenAnswer(invocation -> exchanges(invocation.getArgument(1)));
+
+        List<ExchangeRequestView> seen = service.load(user, false).getExchanges();
+
+        assertEquals(1, seen.size());
+        assertEquals(ExchangeRequest.ExchangeStatus.COMPLETED, seen.get(0).getStatus());
+        assertNull(seen.get(0).getMessage());
+    }
+
+    @Test
+    void ownerSeesAllExchangesWithMessages() {
+        when(exchangeRequestRepository.findByPartyAndStatusIn(eq(1L), any(), any()))
+                .thenAnswer(invocation -> exchanges(invocation.getArgument(1)));
+
+        List<ExchangeRequestView> seen = service.load(user, true).getExchanges();
+
+        assertEquals(2, seen.size());
+        seen.forEach(view -> assertEquals("Private note", view.getMessage()));
+    }
+
+    // propagate only wraps the task when a routing context is open on this thread.
+    private static boolean hasRoutingContext() {
+        Runnable task = () -> {};
+        return RoutingContext.propagate(task) != task;
+    }
+
+    private List<ExchangeRequest> exchanges(Collection<ExchangeRequest.ExchangeStatus> statuses) {
+        User other = user(2L, "other");
+        return EnumSet.of(ExchangeRequest.ExchangeStatus.PENDING, ExchangeRequest.ExchangeStatus.COMPLETED).stream()
+                .filter(statuses::contains)
+                .map(status -> {
+                    ExchangeRequest exchange = new ExchangeRequest();
+                    exchange.setId((long) status.ordinal());
+                    exchange.setRequester(other);
+                    exchange.setOwner(user);
+                    exchange.setRequestedBook(book(10L));
+                    exchange.setOfferedBook(book(20L));
+                    exchange.setStatus(status);
+                    exchange.setMessage("Private note");
+                    return exchange;
+                })
+                .toList();
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User(name, name + "@example.com", "secret");
+        user.setId(id);
+        return user;
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        return book;
+    }
+}
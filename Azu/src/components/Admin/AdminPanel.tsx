@@ -123,7 +123,7 @@ const AdminPanel: React.FC = () => {
                 <div key={book.id} className="flex items-center justify-between py-2 border-b border-gray-100 last:border-b-0">
                   <div className="flex items-center space-x-3">
                     <img
-                      src={book.images[0]}
+                      src={book.thumbnails?.small || book.images[0]}
                       alt={book.title}
                       className="w-12 h-16 object-cover rounded"
                     />
@@ -178,7 +178,7 @@ const AdminPanel: React.FC = () => {
                     <td className="px-6 py-4 whitespace-nowrap">
                       <div className="flex items-center">
                         <img
-                          src={book.images[0]}
+                          src={book.thumbnails?.small || book.images[0]}
                           alt={book.title}
                           className="w-10 h-12 object-cover rounded mr-3"
                         />
@@ -34,7 +34,7 @@ export const BookCard: React.FC<BookCardProps> = ({
         <div className="flex gap-6">
           <div className="relative">
             <img
-              src={book.images?.[0] || 'https://images.pexels.com/photos/1029141/pexels-photo-1029141.jpeg'}
+              src={book.thumbnails?.small || book.images?.[0] || 'https://images.pexels.com/photos/1029141/pexels-photo-1029141.jpeg'}
               alt={book.title}
               className="w-24 h-32 object-cover rounded-lg shadow-md"
             />
@@ -106,7 +106,7 @@ export const BookCard: React.FC<BookCardProps> = ({
     >
       <div className="relative">
         <img
-          src={book.images?.[0] || 'https://images.pexels.com/photos/1029141/pexels-photo-1029141.jpeg'}
+          src={book.thumbnails?.card || book.images?.[0] || 'https://images.pexels.com/photos/1029141/pexels-photo-1029141.jpeg'}
           alt={book.title}
           className="w-full h-48 object-cover group-hover:scale-105 transition-transform duration-300 cursor-pointer"
           onClick={onClick}
@@ -124,7 +124,7 @@ const Exchange: React.FC = () => {
                 <div key={book.id} className="bg-white rounded-lg shadow-sm border p-6">
                   <div className="flex gap-6">
                     <img
-                      src={book.images[0]}
+                      src={book.thumbnails?.small || book.images[0]}
                       alt={book.title}
                       className="w-24 h-32 object-cover rounded-lg"
                     />
@@ -67,7 +67,7 @@ const Wishlist: React.FC = () => {
               <div className="p-6">
                 <div className="flex gap-6">
                   <img
-                    src={book.images[0]}
+                    src={book.thumbnails?.small || book.images[0]}
                     alt={book.title}
                     className="w-24 h-32 object-cover rounded-lg"
                   />
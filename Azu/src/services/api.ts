@@ -42,14 +42,30 @@ export const authAPI = {
   },
 };
 
+// Listings are paged by cursor; callers here want every book, so follow it to the end.
+const fetchAllPages = async (path: string, errorMessage: string) => {
+  const items = [];
+  let cursor: string | null = null;
+  do {
+    const params = new URLSearchParams({ limit: '100' });
+    if (cursor) {
+      params.set('cursor', cursor);
+    }
+    const response = await fetch(`${API_BASE_URL}${path}?${params}`);
+    if (!response.ok) {
+      throw new Error(errorMessage);
+    }
+    const page = await response.json();
+    items.push(...page.items);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
+};
+
 // Books API
 export const booksAPI = {
   getAllBooks: async () => {
-    const response = await fetch(`${API_BASE_URL}/books`);
-    if (!response.ok) {
-      throw new Error('Failed to fetch books');
-    }
-    return response.json();
+    return fetchAllPages('/books', 'Failed to fetch books');
   },
 
   getBookById: async (id: string) => {
@@ -65,33 +81,62 @@ export const booksAPI = {
     if (!response.ok) {
       throw new Error('Failed to search books');
     }
-    return response.json();
+    const page = await response.json();
+    return page.items;
   },
 
-  getBooksByGenre: async (genre: string) => {
-    const response = await fetch(`${API_BASE_URL}/books/genre/${encodeURIComponent(genre)}`);
+  suggest: async (prefix: string, limit?: number) => {
+    const params = new URLSearchParams({ q: prefix });
+    if (limit !== undefined) {
+      params.set('limit', String(limit));
+    }
+    const response = await fetch(`${API_BASE_URL}/books/suggest?${params}`);
     if (!response.ok) {
-      throw new Error('Failed to fetch books by genre');
+      throw new Error('Failed to fetch suggestions');
     }
     return response.json();
   },
 
-  getBooksForSale: async () => {
-    const response = await fetch(`${API_BASE_URL}/books/for-sale`);
+  queryBooks: async (filters: Record<string, string | number | boolean | undefined>) => {
+    const params = new URLSearchParams();
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value !== undefined && value !== '') {
+        params.append(key, String(value));
+      }
+    });
+    const response = await fetch(`${API_BASE_URL}/books/query?${params}`);
     if (!response.ok) {
-      throw new Error('Failed to fetch books for sale');
+      throw new Error('Failed to query books');
     }
     return response.json();
   },
 
-  getBooksForExchange: async () => {
-    const response = await fetch(`${API_BASE_URL}/books/for-exchange`);
+  getFacets: async (filters: Record<string, string | undefined> = {}) => {
+    const params = new URLSearchParams();
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value) {
+        params.append(key, value);
+      }
+    });
+    const response = await fetch(`${API_BASE_URL}/books/facets?${params}`);
     if (!response.ok) {
-      throw new Error('Failed to fetch books for exchange');
+      throw new Error('Failed to fetch facet counts');
     }
     return response.json();
   },
 
+  getBooksByGenre: async (genre: string) => {
+    return fetchAllPages(`/books/genre/${encodeURIComponent(genre)}`, 'Failed to fetch books by genre');
+  },
+
+  getBooksForSale: async () => {
+    return fetchAllPages('/books/for-sale', 'Failed to fetch books for sale');
+  },
+
+  getBooksForExchange: async () => {
+    return fetchAllPages('/books/for-exchange', 'Failed to fetch books for exchange');
+  },
+
   createBook: async (bookData: any, token: string) => {
     const response = await fetch(`${API_BASE_URL}/books`, {
       method: 'POST',
@@ -109,6 +154,25 @@ export const booksAPI = {
     return response.json();
   },
 
+  // Returns the updated book; its `thumbnails` fill in once they are rendered.
+  uploadImage: async (id: string, file: File, token: string) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    const response = await fetch(`${API_BASE_URL}/books/${id}/images`, {
+      method: 'POST',
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+      body: formData,
+    });
+
+    if (!response.ok) {
+      throw new Error(await response.text() || 'Failed to upload image');
+    }
+
+    return response.json();
+  },
+
   updateBook: async (id: string, bookData: any, token: string) => {
     const response = await fetch(`${API_BASE_URL}/books/${id}`, {
       method: 'PUT',
@@ -176,6 +240,20 @@ export const reviewsAPI = {
   },
 };
 
+// Users API
+export const usersAPI = {
+  // Sections listed in `unavailable` were too slow and are left out.
+  getProfile: async (userId: string, token?: string) => {
+    const response = await fetch(`${API_BASE_URL}/users/${userId}/profile`, {
+      headers: token ? { 'Authorization': `Bearer ${token}` } : {},
+    });
+    if (!response.ok) {
+      throw new Error('Failed to fetch profile');
+    }
+    return response.json();
+  },
+};
+
 // Wishlist API
 export const wishlistAPI = {
   getWishlist: async (token: string) => {
@@ -233,6 +311,19 @@ export const exchangeAPI = {
     return response.json();
   },
 
+  getMatches: async (token: string, maxLength?: number) => {
+    const query = maxLength ? `?maxLength=${maxLength}` : '';
+    const response = await fetch(`${API_BASE_URL}/exchanges/matches${query}`, {
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+    });
+    if (!response.ok) {
+      throw new Error('Failed to fetch exchange matches');
+    }
+    return response.json();
+  },
+
   getReceivedRequests: async (token: string) => {
     const response = await fetch(`${API_BASE_URL}/exchanges/received`, {
       headers: {
@@ -278,4 +369,166 @@ export const exchangeAPI = {
     
     return response.json();
   },
-};
\ No newline at end of file
+};
+
+// Saved Searches API
+export const savedSearchesAPI = {
+  getSavedSearches: async (token: string) => {
+    const response = await fetch(`${API_BASE_URL}/saved-searches`, {
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+    });
+    if (!response.ok) {
+      throw new Error('Failed to fetch saved searches');
+    }
+    return response.json();
+  },
+
+  createSavedSearch: async (searchData: any, token: string) => {
+    const response = await fetch(`${API_BASE_URL}/saved-searches`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        'Authorization': `Bearer ${token}`,
+      },
+      body: JSON.stringify(searchData),
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to save search');
+    }
+    
+    return response.json();
+  },
+
+  deleteSavedSearch: async (id: string, token: string) => {
+    const response = await fetch(`${API_BASE_URL}/saved-searches/${id}`, {
+      method: 'DELETE',
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to delete saved search');
+    }
+  },
+};
+
+// Notifications API
+export const notificationsAPI = {
+  getNotifications: async (token: string, cursor?: string) => {
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+    const response = await fetch(`${API_BASE_URL}/notifications${query}`, {
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+    });
+    if (!response.ok) {
+      throw new Error('Failed to fetch notifications');
+    }
+    return response.json();
+  },
+
+  getUnreadCount: async (token: string) => {
+    const response = await fetch(`${API_BASE_URL}/notifications/unread-count`, {
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+    });
+    if (!response.ok) {
+      throw new Error('Failed to fetch unread count');
+    }
+    const body = await response.json();
+    return body.unread;
+  },
+
+  markAllRead: async (token: string) => {
+    const response = await fetch(`${API_BASE_URL}/notifications/read`, {
+      method: 'POST',
+      headers: {
+        'Authorization': `Bearer ${token}`,
+      },
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to mark notifications read');
+    }
+    
+    return response.json();
+  },
+};
+
+export interface PushEvent {
+  id: string;
+  type: string;
+  data: any;
+}
+
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+// Reconnects resume from the last event id; a 'reset' event means events were missed
+// and the caller should reload its exchange and wishlist data.
+export const eventsAPI = {
+  subscribe: (token: string, onEvent: (event: PushEvent) => void, lastEventId?: string) => {
+    const controller = new AbortController();
+    let lastId = lastEventId;
+
+    const dispatch = (block: string) => {
+      let id: string | undefined;
+      let type = 'message';
+      const data: string[] = [];
+      for (const line of block.split('\n')) {
+        if (line.startsWith('id:')) id = line.slice(3).trim();
+        else if (line.startsWith('event:')) type = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(5));
+      }
+      if (id === undefined || data.length === 0) {
+        return; // heartbeat comment
+      }
+      if (lastId !== undefined && BigInt(id) <= BigInt(lastId)) {
+        return;
+      }
+      lastId = id;
+      onEvent({ id, type, data: JSON.parse(data.join('\n')) });
+    };
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const headers: Record<string, string> = {
+            'Authorization': `Bearer ${token}`,
+            'Accept': 'text/event-stream',
+          };
+          if (lastId !== undefined) {
+            headers['Last-Event-ID'] = lastId;
+          }
+          const response = await fetch(`${API_BASE_URL}/events`, { headers, signal: controller.signal });
+          if (response.status === 401 || response.status === 403) {
+            return;
+          }
+          if (response.ok && response.body) {
+            const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+            let buffer = '';
+            for (;;) {
+              const { value, done } = await reader.read();
+              if (done) break;
+              buffer += value.replace(/\r\n?/g, '\n');
+              let end;
+              while ((end = buffer.indexOf('\n\n')) >= 0) {
+                dispatch(buffer.slice(0, end));
+                buffer = buffer.slice(end + 2);
+              }
+            }
+          }
+        } catch (error) {
+          if (controller.signal.aborted) return;
+        }
+        await new Promise(resolve => setTimeout(resolve, 3000));
+      }
+    };
+
+    connect();
+    return () => controller.abort();
+  },
+};
@@ -17,6 +17,7 @@ export interface Book {
   price: number;
   description: string;
   images: string[];
+  thumbnails?: { small: string; card: string };
   sellerId: string;
   sellerName: string;
   isAvailable: boolean;